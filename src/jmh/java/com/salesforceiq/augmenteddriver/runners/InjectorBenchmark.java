@@ -0,0 +1,59 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.salesforceiq.augmenteddriver.modules.AugmentedWebDriverModule;
+import com.salesforceiq.augmenteddriver.modules.CommandLineArgumentsModule;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.CommandLineArguments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the injector of one web test, before and after {@link AugmentedJUnitRunner} shared the
+ * {@link com.salesforceiq.augmenteddriver.annotations.SharedModule}s.
+ *
+ * <p>
+ *     Before, every test created an injector with all its modules, so the properties file and the YAML capabilities
+ *     were read again. After, the shared modules live in a parent injector created once, and every test only creates
+ *     a child injector with the rest. Run from the root of the project (it reads conf/augmented.properties and
+ *     capabilities/web.yaml) with ./gradlew jmh -Pjmh.args="InjectorBenchmark".
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectorBenchmark {
+
+    private Injector shared;
+
+    @Setup
+    public void setUp() {
+        CommandLineArguments.initialize(new String[] {"-conf", CommandLineArguments.DEFAULT_CONFIG,
+                "-capabilities", "capabilities/web.yaml"});
+        shared = Guice.createInjector(new CommandLineArgumentsModule(), new PropertiesModule());
+    }
+
+    @Benchmark
+    public Injector injectorPerTest() {
+        return Guice.createInjector(new CommandLineArgumentsModule(), new PropertiesModule(), new AugmentedWebDriverModule());
+    }
+
+    @Benchmark
+    public Injector childOfTheSharedInjector() {
+        return shared.createChildInjector(new AugmentedWebDriverModule());
+    }
+}
@@ -0,0 +1,114 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WebDriverException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of a batch of "not yet" polls, one per locator, run one after the other in the benchmark thread.
+ *
+ * <p>
+ *     The driver is a stub that never finds anything, so only the framework side is measured: a poll that throws
+ *     a NotFoundException (what FluentWait needed) against a poll that returns {@link WaitResult#notYet}.
+ *     Divide the time by polls for the cost of one poll. It says nothing about waits running at the same time,
+ *     that is {@link WaitSchedulerBenchmark}.
+ *     Run with ./gradlew jmh -Pjmh.args="-prof gc" to see the bytes allocated per poll.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaitPollBenchmark {
+
+    @Param("1000")
+    private int polls;
+
+    private By[] bys;
+    private SearchContext context;
+    private Function<SearchContext, WaitResult<WebElement>>[] conditions;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = new SearchContext() {
+            @Override
+            public List<WebElement> findElements(By by) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public WebElement findElement(By by) {
+                throw new NotFoundException();
+            }
+        };
+        bys = new By[polls];
+        conditions = new Function[polls];
+        for (int index = 0; index < polls; index++) {
+            By by = By.id("element" + index);
+            bys[index] = by;
+            conditions[index] = element -> {
+                List<WebElement> children = element.findElements(by);
+                if (children.isEmpty()) {
+                    return WaitResult.notYet("No elements found for %s", by);
+                }
+                return WaitResult.done(children.get(0));
+            };
+        }
+    }
+
+    /**
+     * What every poll did before, throw so FluentWait polls again.
+     */
+    @Benchmark
+    public void throwingPolls(Blackhole blackhole) {
+        for (By by : bys) {
+            try {
+                List<WebElement> children = context.findElements(by);
+                if (children.isEmpty()) {
+                    throw new NotFoundException(String.format("Element %s not visible yet", by));
+                }
+                blackhole.consume(children.get(0));
+            } catch (WebDriverException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public void resultPolls(Blackhole blackhole) {
+        for (Function<SearchContext, WaitResult<WebElement>> condition : conditions) {
+            WaitResult<WebElement> result = condition.apply(context);
+            blackhole.consume(result.isDone() ? result.getValue() : result);
+        }
+    }
+
+    /**
+     * Cost of building the message, only paid by the waits that time out.
+     */
+    @Benchmark
+    public void timeoutReason(Blackhole blackhole) {
+        blackhole.consume(conditions[0].apply(context).getReason());
+    }
+}
@@ -0,0 +1,137 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.salesforceiq.augmenteddriver.util.polling.FixedPollingStrategy;
+import com.salesforceiq.augmenteddriver.util.polling.PollingStrategy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CPU spent by many waits polling at the same time, driven by the {@link WaitScheduler} against one thread per wait
+ * that sleeps between polls (what the parallel test threads did).
+ *
+ * <p>
+ *     The thread per wait polls without the bookkeeping of {@link WebElementWait} (budget, telemetry), so it is a
+ *     lower bound of the cost of the old blocking waits.
+ * </p>
+ * <p>
+ *     Every wait is done at its POLLS poll, one every POLL_IN_MILLIS, so an operation lasts about the same whatever
+ *     the number of waits. The CPU of the process per wait and its threads are printed after each
+ *     iteration. Run with ./gradlew jmh -Pjmh.args="WaitSchedulerBenchmark".
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaitSchedulerBenchmark {
+
+    private static final int POLLS = 5;
+    private static final long POLL_IN_MILLIS = 20;
+
+    @Param({"10", "100", "1000"})
+    private int waits;
+
+    private SearchContext context;
+    private PollingStrategy pollingStrategy;
+    private ExecutorService testThreads;
+    private long cpuAtStart;
+    private long waitsAtStart;
+    private final AtomicInteger finished = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        context = new SearchContext() {
+            @Override
+            public List<WebElement> findElements(By by) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public WebElement findElement(By by) {
+                throw new NotFoundException();
+            }
+        };
+        pollingStrategy = new FixedPollingStrategy(POLL_IN_MILLIS);
+        testThreads = Executors.newFixedThreadPool(waits, new ThreadFactoryBuilder().setDaemon(true).build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        testThreads.shutdown();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        cpuAtStart = processCpuTime();
+        waitsAtStart = finished.get();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        long count = finished.get() - waitsAtStart;
+        if (count > 0) {
+            System.out.println(String.format("%n%s waits, %.1f microseconds of CPU per wait, %s threads",
+                    count, (processCpuTime() - cpuAtStart) / 1000.0 / count, ManagementFactory.getThreadMXBean().getThreadCount()));
+        }
+    }
+
+    @Benchmark
+    public void scheduler() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[waits];
+        for (int index = 0; index < waits; index++) {
+            AtomicInteger polls = new AtomicInteger();
+            futures[index] = new WebElementWait(context, 30, null, pollingStrategy)
+                    .untilAsync(element -> polls.incrementAndGet() < POLLS ? WaitResult.notYet() : WaitResult.done(element));
+        }
+        CompletableFuture.allOf(futures).join();
+        finished.addAndGet(waits);
+    }
+
+    @Benchmark
+    public void threadPerWait() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(waits);
+        for (int index = 0; index < waits; index++) {
+            testThreads.execute(() -> {
+                for (int polls = 1; polls < POLLS; polls++) {
+                    context.findElements(By.id("element"));
+                    Util.pause(POLL_IN_MILLIS);
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        finished.addAndGet(waits);
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+}
@@ -0,0 +1,76 @@
+package com.salesforceiq.augmenteddriver.util.bys;
+
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of one search with the XPath of the Bys builders against the same search rewritten by {@link LocatorOptimizer}.
+ *
+ * <p>
+ *     The fake server adds xpathLatency milliseconds to each XPath search, to model a server that has to serialize
+ *     the whole hierarchy for XPath (Appium), 0 shows only the round trip.
+ *     Run with ./gradlew jmh -Pjmh.args="LocatorOptimizerBenchmark".
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocatorOptimizerBenchmark {
+
+    @Param({"0", "50"})
+    private long xpathLatency;
+
+    private FakeWebDriverServer server;
+    private RemoteWebDriver driver;
+    private By xpath;
+    private By optimized;
+
+    @Setup
+    public void setUp() throws Exception {
+        FakeElement root = new FakeElement("html");
+        for (int index = 0; index < 200; index++) {
+            root.withChildren(new FakeElement("input").withAttribute("name", "field" + index));
+        }
+        server = new FakeWebDriverServer(0, root).withLocatorLatency("xpath", xpathLatency).start();
+        driver = new RemoteWebDriver(new URL(server.getAddress()), DesiredCapabilities.firefox());
+        xpath = By.xpath(".//input[@name='field150']");
+        optimized = LocatorOptimizer.optimize(xpath, LocatorOptimizer.Target.WEB);
+    }
+
+    @TearDown
+    public void tearDown() {
+        driver.quit();
+        server.stop();
+    }
+
+    @Benchmark
+    public Object xpath() {
+        return driver.findElements(xpath);
+    }
+
+    @Benchmark
+    public Object optimized() {
+        return driver.findElements(optimized);
+    }
+}
@@ -0,0 +1,128 @@
+package com.salesforceiq.augmenteddriver.util.bys;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import io.appium.java_client.MobileBy;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of one search of the same element with each locator strategy, against the hierarchies of an inbox recorded
+ * from Android and iOS (android-inbox.xml and ios-inbox.xml, 40 conversations).
+ *
+ * <p>
+ *     The searched elements are in the last conversations, near the end of the hierarchy, found by XPath
+ *     ({@link AndroidBys}, {@link IOSBys} without {@link LocatorOptimizer}), UiAutomator
+ *     ({@link AndroidUiAutomatorBys}), UIAutomation predicate ({@link IOSPredicateBys}), id and accessibility id.
+ *     The fake server adds commandLatency milliseconds to every command, the round trip to the device, so the
+ *     strategies that need more than one command (the class check of {@link IOSPredicateBys}) pay for each. It adds
+ *     xpathLatency milliseconds more to each XPath search, to model Appium serializing the hierarchy for XPath. With
+ *     both at 0 it shows only the local round trip and the matching.
+ *     Run with ./gradlew jmh -Pjmh.args="MobileLocatorBenchmark".
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MobileLocatorBenchmark {
+
+    private static final String SENDER = "Esteban Navarro";
+    private static final String SUBJECT = "Invoice #1035";
+
+    @Param({"0", "20"})
+    private long commandLatency;
+
+    @Param({"0", "50"})
+    private long xpathLatency;
+
+    private FakeWebDriverServer androidServer;
+    private FakeWebDriverServer iosServer;
+    private AndroidDriver<WebElement> android;
+    private IOSDriver<WebElement> ios;
+
+    @Setup
+    public void setUp() throws Exception {
+        androidServer = new FakeWebDriverServer(0, recorded("android-inbox.xml"))
+                .withLatency(commandLatency, 0)
+                .withLocatorLatency("xpath", xpathLatency)
+                .start();
+        iosServer = new FakeWebDriverServer(0, recorded("ios-inbox.xml"))
+                .withLatency(commandLatency, 0)
+                .withLocatorLatency("xpath", xpathLatency)
+                .start();
+        android = new AndroidDriver<>(new URL(androidServer.getAddress()), DesiredCapabilities.android());
+        ios = new IOSDriver<>(new URL(iosServer.getAddress()), DesiredCapabilities.iphone());
+    }
+
+    @TearDown
+    public void tearDown() {
+        android.quit();
+        ios.quit();
+        androidServer.stop();
+        iosServer.stop();
+    }
+
+    @Benchmark
+    public Object androidXpath() {
+        return android.findElements(LocatorOptimizer.original(AndroidBys.textViewWithText(SUBJECT)));
+    }
+
+    @Benchmark
+    public Object androidUiAutomator() {
+        return android.findElements(AndroidUiAutomatorBys.textViewWithText(SUBJECT));
+    }
+
+    @Benchmark
+    public Object androidAccessibilityId() {
+        return android.findElements(MobileBy.AccessibilityId("Avatar of " + SENDER));
+    }
+
+    @Benchmark
+    public Object androidId() {
+        return android.findElements(By.id("com.example.mail:id/compose"));
+    }
+
+    @Benchmark
+    public Object iosXpath() {
+        return ios.findElements(LocatorOptimizer.original(IOSBys.staticTextWithName(SUBJECT)));
+    }
+
+    @Benchmark
+    public Object iosPredicate() {
+        return ios.findElements(IOSPredicateBys.staticTextWithName(SUBJECT));
+    }
+
+    @Benchmark
+    public Object iosAccessibilityId() {
+        return ios.findElements(MobileBy.AccessibilityId(SENDER));
+    }
+
+    private static FakeElement recorded(String resource) throws IOException {
+        return FakeElement.fromPageSource(Resources.toString(
+                Resources.getResource(MobileLocatorBenchmark.class, resource), Charsets.UTF_8));
+    }
+}
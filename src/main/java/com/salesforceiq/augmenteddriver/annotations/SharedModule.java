@@ -0,0 +1,18 @@
+package com.salesforceiq.augmenteddriver.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a Guice Module whose bindings do not depend on the test being run (properties, command line
+ * arguments, integrations).
+ *
+ * <p>
+ *     The injector for the shared modules of a test class is created once per JVM and used as the parent of
+ *     the injector of every test, so only the remaining (test scoped) modules are configured for each test.
+ * </p>
+ */
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SharedModule {
+}
@@ -1,5 +1,7 @@
 package com.salesforceiq.augmenteddriver.mobile;
 
+import com.salesforceiq.augmenteddriver.util.Gesture;
+import com.salesforceiq.augmenteddriver.util.ScreenFingerprint;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
@@ -66,11 +68,23 @@ public interface AugmentedMobileFunctions<T> {
      */
     T swipeDownWaitElementVisible(By swipeUpElement, By elementPresent);
 
+    /**
+     * Scrolls the list until the element is visible, with one command if the server can scroll to it, or swiping up
+     * on the list until it is visible or the list ends.
+     *
+     * <p>
+     *     The server scrolls to the UiAutomator bys on Android and the predicate bys on iOS, and to the XPaths of
+     *     the Bys builders that have one, see {@link com.salesforceiq.augmenteddriver.util.MobileUtil}.
+     * </p>
+     */
+    T scrollWaitElementVisible(By scrollElement, By elementVisible);
+
     /**
      * Swipes vertical on an element (negative offset up, positive offset down) until the
      * other element is visible.
      *
-     * It will swipe quantity times, with as specific offset (pixels up or down) with a duration
+     * It will swipe quantity times, with as specific offset (pixels up or down) with a duration, failing
+     * earlier if a swipe does not change the screen (the end of the list).
      */
     T swipeVerticalWaitVisible(By swipeElement,
                        By elementVisible,
@@ -108,4 +122,19 @@ public interface AugmentedMobileFunctions<T> {
     void swipeFullLeftAfter(WebElement element, int waitInSeconds);
 
     void swipeFullLeftAfter(By by, int waitInSeconds);
+
+    /**
+     * @return an empty touch sequence, to compose steps sent in one command, see {@link Gesture}.
+     */
+    Gesture gesture();
+
+    /**
+     * Fetches the page source once to check many elements of the screen locally, see {@link PageSourceSnapshot}.
+     */
+    PageSourceSnapshot snapshot();
+
+    /**
+     * @return what the screen shows now, to know later if it changed, see {@link ScreenFingerprint}.
+     */
+    ScreenFingerprint fingerprint();
 }
@@ -0,0 +1,336 @@
+package com.salesforceiq.augmenteddriver.mobile;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.salesforceiq.augmenteddriver.util.bys.LocatorOptimizer;
+import io.appium.java_client.MobileBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The UI hierarchy of an app at one moment, fetched with one getPageSource and searched locally.
+ *
+ * <p>
+ *     Every XPath search on Appium makes the server dump and search the whole hierarchy, so checking many elements
+ *     of a screen costs one dump per check. A snapshot dumps it once and answers any number of id, class name,
+ *     accessibility id and XPath searches from memory: the elements are indexed by class and by the attributes the
+ *     Bys search (text, content-desc and resource-id on Android, name, label and value on iOS), other XPaths are
+ *     evaluated on the parsed tree. The Bys of {@link com.salesforceiq.augmenteddriver.util.bys.AndroidBys} and
+ *     {@link com.salesforceiq.augmenteddriver.util.bys.IOSBys} are searched with the XPath they were rewritten from.
+ * </p>
+ * <p>
+ *     The elements found are {@link SnapshotElement}s, only resolved into real elements with
+ *     {@link SnapshotElement#resolve()} when the test has to interact with them. The snapshot does not change, take
+ *     a new one after the screen changes. It is always of the whole screen.
+ * </p>
+ */
+public class PageSourceSnapshot {
+
+    private static final Pattern SIMPLE_XPATH = Pattern.compile("^\\.//([\\w.\\-]+|\\*)\\[@([\\w\\-]+)\\s*=\\s*'([^']*)'\\]$");
+
+    private static final Pattern BOUNDS = Pattern.compile("^\\[(-?\\d+),(-?\\d+)\\]\\[(-?\\d+),(-?\\d+)\\]$");
+
+    private static final List<String> ANDROID_ATTRIBUTES = ImmutableList.of("text", "content-desc", "resource-id");
+    private static final List<String> IOS_ATTRIBUTES = ImmutableList.of("name", "label", "value");
+
+    private final SearchContext context;
+    private final LocatorOptimizer.Target target;
+    private final Document document;
+    private final List<SnapshotElement> elements = Lists.newArrayList();
+    private final Map<org.w3c.dom.Node, SnapshotElement> byNode = Maps.newIdentityHashMap();
+    private final ListMultimap<String, SnapshotElement> byClass = ArrayListMultimap.create();
+    private final Map<String, ListMultimap<String, SnapshotElement>> byAttribute = Maps.newHashMap();
+
+    private PageSourceSnapshot(SearchContext context, LocatorOptimizer.Target target, Document document) {
+        this.context = context;
+        this.target = target;
+        this.document = document;
+        attributes().forEach(attribute -> byAttribute.put(attribute, ArrayListMultimap.create()));
+        index(document.getDocumentElement(), null);
+    }
+
+    /**
+     * Fetches the page source of the driver, the only command a snapshot sends until an element is resolved.
+     */
+    public static PageSourceSnapshot take(WebDriver driver, LocatorOptimizer.Target target) {
+        Preconditions.checkNotNull(driver);
+        return parse(driver, driver.getPageSource(), target);
+    }
+
+    /**
+     * @param context where the elements are resolved.
+     * @param pageSource the page source of an Android or iOS driver.
+     */
+    public static PageSourceSnapshot parse(SearchContext context, String pageSource, LocatorOptimizer.Target target) {
+        Preconditions.checkNotNull(context);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(pageSource));
+        Preconditions.checkArgument(target == LocatorOptimizer.Target.ANDROID || target == LocatorOptimizer.Target.IOS,
+                "Snapshots are only for Android and iOS");
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+            return new PageSourceSnapshot(context, target, document);
+        } catch (Exception e) {
+            throw new WebDriverException("Could not parse the page source", e);
+        }
+    }
+
+    /**
+     * @return true if the by can be searched in the snapshot: id, class name, accessibility id and XPath.
+     */
+    public static boolean supports(By by) {
+        String strategy = strategy(LocatorOptimizer.original(Preconditions.checkNotNull(by)));
+        return "By.id".equals(strategy) || "By.className".equals(strategy) || "By.AccessibilityId".equals(strategy)
+                || "By.xpath".equals(strategy);
+    }
+
+    /**
+     * @return the elements of the snapshot identified by the by, in document order.
+     * @throws IllegalArgumentException if the by can not be searched in a snapshot, see {@link #supports(By)}.
+     */
+    public List<SnapshotElement> findElements(By by) {
+        Preconditions.checkArgument(supports(by), "%s can not be searched in a snapshot", by);
+        By original = LocatorOptimizer.original(by);
+        String strategy = strategy(original);
+        String value = original.toString().substring(strategy.length() + 2).trim();
+        switch (strategy) {
+            case "By.id":
+                return target == LocatorOptimizer.Target.ANDROID ? resourceId(value) : attribute("name", value);
+            case "By.className":
+                return Collections.unmodifiableList(byClass.get(value));
+            case "By.AccessibilityId":
+                return attribute(target == LocatorOptimizer.Target.ANDROID ? "content-desc" : "name", value);
+            default:
+                return xpath(value);
+        }
+    }
+
+    public boolean isElementPresent(By by) {
+        return !findElements(by).isEmpty();
+    }
+
+    public boolean isElementVisible(By by) {
+        return findElements(by).stream().anyMatch(SnapshotElement::isDisplayed);
+    }
+
+    /**
+     * @return how many elements the hierarchy has.
+     */
+    public int size() {
+        return elements.size();
+    }
+
+    private List<String> attributes() {
+        return target == LocatorOptimizer.Target.ANDROID ? ANDROID_ATTRIBUTES : IOS_ATTRIBUTES;
+    }
+
+    private void index(org.w3c.dom.Element node, SnapshotElement parent) {
+        SnapshotElement element = new SnapshotElement(node, parent);
+        elements.add(element);
+        byNode.put(node, element);
+        byClass.put(element.getTagName(), element);
+        attributes().forEach(attribute -> {
+            String value = element.getAttribute(attribute);
+            if (!Strings.isNullOrEmpty(value)) {
+                byAttribute.get(attribute).put(value, element);
+            }
+        });
+        NodeList children = node.getChildNodes();
+        for (int index = 0; index < children.getLength(); index++) {
+            if (children.item(index) instanceof org.w3c.dom.Element) {
+                index((org.w3c.dom.Element) children.item(index), element);
+            }
+        }
+    }
+
+    private List<SnapshotElement> attribute(String attribute, String value) {
+        return Collections.unmodifiableList(byAttribute.get(attribute).get(value));
+    }
+
+    /**
+     * Appium finds Android ids with or without the package ("com.app:id/save" or "save").
+     */
+    private List<SnapshotElement> resourceId(String id) {
+        if (id.contains(":id/")) {
+            return attribute("resource-id", id);
+        }
+        return elements.stream()
+                .filter(element -> Strings.nullToEmpty(element.getAttribute("resource-id")).endsWith(":id/" + id))
+                .collect(Collectors.toList());
+    }
+
+    private List<SnapshotElement> xpath(String expression) {
+        Matcher simple = SIMPLE_XPATH.matcher(expression);
+        if (simple.matches() && byAttribute.containsKey(simple.group(2))) {
+            String tag = simple.group(1);
+            return attribute(simple.group(2), simple.group(3))
+                    .stream()
+                    .filter(element -> "*".equals(tag) || tag.equals(element.getTagName()))
+                    .collect(Collectors.toList());
+        }
+        try {
+            NodeList found = (NodeList) XPathFactory.newInstance().newXPath().evaluate(expression, document, XPathConstants.NODESET);
+            List<SnapshotElement> result = Lists.newArrayListWithCapacity(found.getLength());
+            for (int index = 0; index < found.getLength(); index++) {
+                SnapshotElement element = byNode.get(found.item(index));
+                if (element != null) {
+                    result.add(element);
+                }
+            }
+            return result;
+        } catch (XPathExpressionException e) {
+            throw new IllegalArgumentException(String.format("Invalid xpath %s", expression), e);
+        }
+    }
+
+    private static String strategy(By by) {
+        String description = by.toString();
+        int separator = description.indexOf(": ");
+        return separator < 0 ? description : description.substring(0, separator);
+    }
+
+    /**
+     * One element of the snapshot, what it had when the snapshot was taken.
+     */
+    public class SnapshotElement {
+        private final org.w3c.dom.Element node;
+        private final SnapshotElement parent;
+        private WebElement resolved;
+
+        private SnapshotElement(org.w3c.dom.Element node, SnapshotElement parent) {
+            this.node = node;
+            this.parent = parent;
+        }
+
+        /**
+         * @return the class of the element.
+         */
+        public String getTagName() {
+            return node.getTagName();
+        }
+
+        /**
+         * @return the attribute, null if the element does not have it.
+         */
+        public String getAttribute(String name) {
+            return node.hasAttribute(name) ? node.getAttribute(name) : null;
+        }
+
+        public String getText() {
+            if (target == LocatorOptimizer.Target.ANDROID) {
+                return Strings.nullToEmpty(getAttribute("text"));
+            }
+            return Strings.nullToEmpty(getAttribute("value") != null ? getAttribute("value") : getAttribute("label"));
+        }
+
+        /**
+         * @return the displayed (Android) or visible (iOS) attribute, on Android dumps without it, if it has a size.
+         */
+        public boolean isDisplayed() {
+            if (target == LocatorOptimizer.Target.IOS) {
+                return !"false".equals(getAttribute("visible"));
+            }
+            if (getAttribute("displayed") != null) {
+                return Boolean.valueOf(getAttribute("displayed"));
+            }
+            String bounds = getAttribute("bounds");
+            if (bounds == null) {
+                return true;
+            }
+            Matcher corners = BOUNDS.matcher(bounds);
+            return corners.matches() && Integer.parseInt(corners.group(3)) > Integer.parseInt(corners.group(1))
+                    && Integer.parseInt(corners.group(4)) > Integer.parseInt(corners.group(2));
+        }
+
+        public boolean isEnabled() {
+            return !"false".equals(getAttribute("enabled"));
+        }
+
+        public SnapshotElement getParent() {
+            return parent;
+        }
+
+        /**
+         * @return a By that finds this element on the device: its id or accessibility id if no other element of the
+         *         snapshot has it, its position in the hierarchy if not.
+         */
+        public By locator() {
+            if (target == LocatorOptimizer.Target.ANDROID) {
+                String resourceId = getAttribute("resource-id");
+                if (!Strings.isNullOrEmpty(resourceId) && attribute("resource-id", resourceId).size() == 1) {
+                    return By.id(resourceId);
+                }
+            }
+            String accessibilityId = getAttribute(target == LocatorOptimizer.Target.ANDROID ? "content-desc" : "name");
+            if (!Strings.isNullOrEmpty(accessibilityId)
+                    && attribute(target == LocatorOptimizer.Target.ANDROID ? "content-desc" : "name", accessibilityId).size() == 1) {
+                return MobileBy.AccessibilityId(accessibilityId);
+            }
+            return By.xpath(path());
+        }
+
+        /**
+         * Finds the element on the device with {@link #locator()}, once.
+         *
+         * @throws org.openqa.selenium.NoSuchElementException if the screen changed and it is not there anymore.
+         */
+        public synchronized WebElement resolve() {
+            if (resolved == null) {
+                resolved = context.findElement(locator());
+            }
+            return resolved;
+        }
+
+        /**
+         * @return the absolute XPath of the element, as /hierarchy[1]/android.widget.FrameLayout[1]/...
+         */
+        private String path() {
+            StringBuilder path = new StringBuilder();
+            for (SnapshotElement current = this; current != null; current = current.parent) {
+                int position = 1;
+                for (org.w3c.dom.Node sibling = current.node.getPreviousSibling(); sibling != null; sibling = sibling.getPreviousSibling()) {
+                    if (sibling instanceof org.w3c.dom.Element && ((org.w3c.dom.Element) sibling).getTagName().equals(current.getTagName())) {
+                        position++;
+                    }
+                }
+                path.insert(0, String.format("/%s[%s]", current.getTagName(), position));
+            }
+            return path.toString();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder description = new StringBuilder(getTagName());
+            for (String attribute : attributes()) {
+                if (!Strings.isNullOrEmpty(getAttribute(attribute))) {
+                    description.append(String.format(" %s='%s'", attribute, getAttribute(attribute)));
+                }
+            }
+            return description.toString();
+        }
+    }
+}
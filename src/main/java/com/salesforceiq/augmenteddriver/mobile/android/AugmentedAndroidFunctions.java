@@ -6,15 +6,22 @@ import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.mobile.AugmentedMobileFunctions;
+import com.salesforceiq.augmenteddriver.mobile.PageSourceSnapshot;
 import com.salesforceiq.augmenteddriver.util.AugmentedFunctions;
+import com.salesforceiq.augmenteddriver.util.LocatorMatch;
+import com.salesforceiq.augmenteddriver.util.Gesture;
 import com.salesforceiq.augmenteddriver.util.MobileUtil;
+import com.salesforceiq.augmenteddriver.util.ScreenFingerprint;
 import com.salesforceiq.augmenteddriver.util.WebDriverUtil;
+import com.salesforceiq.augmenteddriver.util.bys.LocatorOptimizer;
 import org.openqa.selenium.By;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAndroidElement>,
@@ -57,7 +64,7 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     @Override
     public boolean isElementPresentImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementPresentAfter(by, 0);
+        return WebDriverUtil.isElementPresentImmediate(searchContext, by);
     }
 
     @Override
@@ -80,7 +87,7 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     @Override
     public boolean isElementVisibleImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementVisibleAfter(by, 0);
+        return WebDriverUtil.isElementVisibleImmediate(searchContext, by);
     }
 
     @Override
@@ -103,7 +110,7 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     @Override
     public boolean isElementClickableImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementClickableAfter(by, 0);
+        return WebDriverUtil.isElementClickableImmediate(searchContext, by);
     }
 
     @Override
@@ -211,6 +218,54 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public LocatorMatch<AugmentedAndroidElement> findAnyElementPresent(By... bys) {
+        return findAnyElementPresentAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public LocatorMatch<AugmentedAndroidElement> findAnyElementPresentAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAnyElementAfter(searchContext, bys, false, waitInSeconds)
+                .map(webElement -> augmentedAndroidElementFactory.create(webElement));
+    }
+
+    @Override
+    public LocatorMatch<AugmentedAndroidElement> findAnyElementVisible(By... bys) {
+        return findAnyElementVisibleAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public LocatorMatch<AugmentedAndroidElement> findAnyElementVisibleAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAnyElementAfter(searchContext, bys, true, waitInSeconds)
+                .map(webElement -> augmentedAndroidElementFactory.create(webElement));
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedAndroidElement>> findAllElementsPresent(By... bys) {
+        return findAllElementsPresentAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedAndroidElement>> findAllElementsPresentAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAllElementsAfter(searchContext, bys, false, waitInSeconds)
+                .stream()
+                .map(match -> match.map(webElement -> augmentedAndroidElementFactory.create(webElement)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedAndroidElement>> findAllElementsVisible(By... bys) {
+        return findAllElementsVisibleAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedAndroidElement>> findAllElementsVisibleAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAllElementsAfter(searchContext, bys, true, waitInSeconds)
+                .stream()
+                .map(match -> match.map(webElement -> augmentedAndroidElementFactory.create(webElement)))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void waitElementToNotBePresent(By by) {
         waitElementToNotBePresentAfter(by, waitTimeInSeconds);
@@ -233,6 +288,64 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
         WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds);
     }
 
+    @Override
+    public CompletableFuture<AugmentedAndroidElement> findElementPresentAsync(By by) {
+        return findElementPresentAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<AugmentedAndroidElement> findElementPresentAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementPresentAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedAndroidElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<AugmentedAndroidElement> findElementVisibleAsync(By by) {
+        return findElementVisibleAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<AugmentedAndroidElement> findElementVisibleAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementVisibleAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedAndroidElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<AugmentedAndroidElement> findElementClickableAsync(By by) {
+        return findElementClickableAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<AugmentedAndroidElement> findElementClickableAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementClickableAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedAndroidElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBePresentAsync(By by) {
+        return waitElementToNotBePresentAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBePresentAfterAsync(By by, int waitInSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.waitElementToNotBePresentAsync(searchContext, by, waitInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBeVisibleAsync(By by) {
+        return waitElementToNotBeVisibleAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBeVisibleAfterAsync(By by, int waitInSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.waitElementToNotBeVisibleAsync(searchContext, by, waitInSeconds);
+    }
+
     @Override
     public AugmentedAndroidElement clickAndPresent(By click, By wait) {
         return clickAndPresentAfter(click, wait, waitTimeInSeconds);
@@ -336,6 +449,12 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
         return augmentedAndroidElementFactory.create(element);
     }
 
+    @Override
+    public AugmentedAndroidElement scrollWaitElementVisible(By scrollElement, By elementVisible) {
+        WebElement element = MobileUtil.scrollWaitVisible(augmentedAndroidDriveProvider.get(), augmentedAndroidDriveProvider.get().augmented(), scrollElement, elementVisible);
+        return augmentedAndroidElementFactory.create(element);
+    }
+
     @Override
     public AugmentedAndroidElement swipeVerticalWaitVisible(By swipeElement, By elementVisible, int offset, int quantity, int duration) {
         WebElement element = MobileUtil.swipeVerticalWaitVisible(augmentedAndroidDriveProvider.get(), augmentedAndroidDriveProvider.get().augmented(), swipeElement, elementVisible, offset, quantity, duration);
@@ -398,4 +517,19 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public void swipeFullLeftAfter(By by, int waitInSeconds) {
         MobileUtil.swipeFullLeftAfter(augmentedAndroidDriveProvider.get(), augmentedAndroidDriveProvider.get().augmented(), by, waitInSeconds);
     }
+
+    @Override
+    public Gesture gesture() {
+        return Gesture.on(augmentedAndroidDriveProvider.get());
+    }
+
+    @Override
+    public PageSourceSnapshot snapshot() {
+        return PageSourceSnapshot.take(augmentedAndroidDriveProvider.get(), LocatorOptimizer.Target.ANDROID);
+    }
+
+    @Override
+    public ScreenFingerprint fingerprint() {
+        return ScreenFingerprint.take(augmentedAndroidDriveProvider.get());
+    }
 }
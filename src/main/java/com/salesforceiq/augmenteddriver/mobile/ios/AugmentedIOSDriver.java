@@ -4,12 +4,17 @@ import com.google.common.base.Preconditions;
 import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.mobile.android.AugmentedAndroidFunctions;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.CommandLatencies;
+import com.salesforceiq.augmenteddriver.util.ScreenGeometry;
 import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.ScreenOrientation;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.Response;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
 
 /**
  * Driver used for automation against IOS.
@@ -22,6 +27,7 @@ import java.net.URL;
  * </p>
  */
 public class AugmentedIOSDriver extends IOSDriver<WebElement> {
+    private final CommandLatencies commandLatencies = CommandLatencies.forTest();
     private AugmentedIOSFunctions augmentedFunctions;
 
     public AugmentedIOSDriver(@Named(PropertiesModule.REMOTE_ADDRESS) String remoteAddress,
@@ -31,6 +37,45 @@ public class AugmentedIOSDriver extends IOSDriver<WebElement> {
         this.augmentedFunctions = augmentedFunctions;
     }
 
+    /**
+     * Times every remote command.
+     *
+     * <p>
+     *     The session is created before the fields are initialized, so that command is only recorded for the run.
+     * </p>
+     */
+    @Override
+    public Response execute(String driverCommand, Map<String, ?> parameters) {
+        long start = System.nanoTime();
+        try {
+            return super.execute(driverCommand, parameters);
+        } finally {
+            (commandLatencies == null ? CommandLatencies.RUN : commandLatencies).record(driverCommand, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The screen has another size after rotating, see {@link ScreenGeometry}.
+     */
+    @Override
+    public void rotate(ScreenOrientation orientation) {
+        super.rotate(orientation);
+        ScreenGeometry.invalidate(this);
+    }
+
+    @Override
+    public void quit() {
+        ScreenGeometry.invalidate(this);
+        super.quit();
+    }
+
+    /**
+     * @return the latencies of the commands sent by this driver.
+     */
+    public CommandLatencies commandLatencies() {
+        return commandLatencies;
+    }
+
     public AugmentedIOSFunctions augmented() {
         return augmentedFunctions;
     }
@@ -6,15 +6,22 @@ import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.mobile.AugmentedMobileFunctions;
+import com.salesforceiq.augmenteddriver.mobile.PageSourceSnapshot;
 import com.salesforceiq.augmenteddriver.util.AugmentedFunctions;
+import com.salesforceiq.augmenteddriver.util.LocatorMatch;
+import com.salesforceiq.augmenteddriver.util.Gesture;
 import com.salesforceiq.augmenteddriver.util.MobileUtil;
+import com.salesforceiq.augmenteddriver.util.ScreenFingerprint;
 import com.salesforceiq.augmenteddriver.util.WebDriverUtil;
+import com.salesforceiq.augmenteddriver.util.bys.LocatorOptimizer;
 import org.openqa.selenium.By;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSElement>,
@@ -57,7 +64,7 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     @Override
     public boolean isElementPresentImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementPresentAfter(by, 0);
+        return WebDriverUtil.isElementPresentImmediate(searchContext, by);
     }
 
     @Override
@@ -80,7 +87,7 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     @Override
     public boolean isElementVisibleImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementVisibleAfter(by, 0);
+        return WebDriverUtil.isElementVisibleImmediate(searchContext, by);
     }
 
     @Override
@@ -103,7 +110,7 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     @Override
     public boolean isElementClickableImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementClickableAfter(by, 0);
+        return WebDriverUtil.isElementClickableImmediate(searchContext, by);
     }
 
     @Override
@@ -211,6 +218,54 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public LocatorMatch<AugmentedIOSElement> findAnyElementPresent(By... bys) {
+        return findAnyElementPresentAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public LocatorMatch<AugmentedIOSElement> findAnyElementPresentAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAnyElementAfter(searchContext, bys, false, waitInSeconds)
+                .map(webElement -> augmentedIOSElementFactory.create(webElement));
+    }
+
+    @Override
+    public LocatorMatch<AugmentedIOSElement> findAnyElementVisible(By... bys) {
+        return findAnyElementVisibleAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public LocatorMatch<AugmentedIOSElement> findAnyElementVisibleAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAnyElementAfter(searchContext, bys, true, waitInSeconds)
+                .map(webElement -> augmentedIOSElementFactory.create(webElement));
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedIOSElement>> findAllElementsPresent(By... bys) {
+        return findAllElementsPresentAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedIOSElement>> findAllElementsPresentAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAllElementsAfter(searchContext, bys, false, waitInSeconds)
+                .stream()
+                .map(match -> match.map(webElement -> augmentedIOSElementFactory.create(webElement)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedIOSElement>> findAllElementsVisible(By... bys) {
+        return findAllElementsVisibleAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedIOSElement>> findAllElementsVisibleAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAllElementsAfter(searchContext, bys, true, waitInSeconds)
+                .stream()
+                .map(match -> match.map(webElement -> augmentedIOSElementFactory.create(webElement)))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void waitElementToNotBePresent(By by) {
         waitElementToNotBePresentAfter(by, waitTimeInSeconds);
@@ -233,6 +288,64 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
         WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds);
     }
 
+    @Override
+    public CompletableFuture<AugmentedIOSElement> findElementPresentAsync(By by) {
+        return findElementPresentAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<AugmentedIOSElement> findElementPresentAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementPresentAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedIOSElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<AugmentedIOSElement> findElementVisibleAsync(By by) {
+        return findElementVisibleAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<AugmentedIOSElement> findElementVisibleAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementVisibleAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedIOSElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<AugmentedIOSElement> findElementClickableAsync(By by) {
+        return findElementClickableAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<AugmentedIOSElement> findElementClickableAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementClickableAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedIOSElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBePresentAsync(By by) {
+        return waitElementToNotBePresentAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBePresentAfterAsync(By by, int waitInSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.waitElementToNotBePresentAsync(searchContext, by, waitInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBeVisibleAsync(By by) {
+        return waitElementToNotBeVisibleAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBeVisibleAfterAsync(By by, int waitInSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.waitElementToNotBeVisibleAsync(searchContext, by, waitInSeconds);
+    }
+
     @Override
     public AugmentedIOSElement clickAndPresent(By click, By wait) {
         return clickAndPresentAfter(click, wait, waitTimeInSeconds);
@@ -336,6 +449,12 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
         return augmentedIOSElementFactory.create(element);
     }
 
+    @Override
+    public AugmentedIOSElement scrollWaitElementVisible(By scrollElement, By elementVisible) {
+        WebElement element = MobileUtil.scrollWaitVisible(augmentedIOSDriverProvider.get(), augmentedIOSDriverProvider.get().augmented(), scrollElement, elementVisible);
+        return augmentedIOSElementFactory.create(element);
+    }
+
     @Override
     public AugmentedIOSElement swipeVerticalWaitVisible(By swipeElement, By elementVisible, int offset, int quantity, int duration) {
         WebElement element = MobileUtil.swipeVerticalWaitVisible(augmentedIOSDriverProvider.get(), augmentedIOSDriverProvider.get().augmented(), swipeElement, elementVisible, offset, quantity, duration);
@@ -398,4 +517,19 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public void swipeFullLeftAfter(By by, int waitInSeconds) {
         MobileUtil.swipeFullLeftAfter(augmentedIOSDriverProvider.get(), augmentedIOSDriverProvider.get().augmented(), by, waitInSeconds);
     }
+
+    @Override
+    public Gesture gesture() {
+        return Gesture.on(augmentedIOSDriverProvider.get());
+    }
+
+    @Override
+    public PageSourceSnapshot snapshot() {
+        return PageSourceSnapshot.take(augmentedIOSDriverProvider.get(), LocatorOptimizer.Target.IOS);
+    }
+
+    @Override
+    public ScreenFingerprint fingerprint() {
+        return ScreenFingerprint.take(augmentedIOSDriverProvider.get());
+    }
 }
@@ -3,9 +3,11 @@ package com.salesforceiq.augmenteddriver.modules;
 import com.google.inject.AbstractModule;
 import com.google.inject.binder.LinkedBindingBuilder;
 import com.google.inject.multibindings.Multibinder;
+import com.salesforceiq.augmenteddriver.annotations.SharedModule;
 import com.salesforceiq.augmenteddriver.integrations.Integration;
 import com.salesforceiq.augmenteddriver.integrations.ReportIntegration;
 
+@SharedModule
 public abstract class AbstractIntegrationModule extends AbstractModule {
 
     private Multibinder<Integration> integrationsBinder;
@@ -18,6 +18,7 @@ public class AugmentedAndroidDriverModule extends AbstractModule {
         install(new FactoryModuleBuilder()
                 .implement(AugmentedAndroidFunctions.class, AugmentedAndroidFunctions.class)
                 .build(AugmentedAndroidFunctionsFactory.class));
+        bind(AugmentedAndroidDriverProvider.class);
         bind(AugmentedAndroidDriver.class).toProvider(AugmentedAndroidDriverProvider.class);
         install(new FactoryModuleBuilder()
                 .implement(AugmentedAndroidElement.class, AugmentedAndroidElement.class)
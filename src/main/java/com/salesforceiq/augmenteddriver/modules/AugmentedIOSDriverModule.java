@@ -14,6 +14,7 @@ public class AugmentedIOSDriverModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(WebDriver.class).to(AugmentedIOSDriver.class);
+        bind(AugmentedIOSDriverProvider.class);
         bind(AugmentedIOSDriver.class).toProvider(AugmentedIOSDriverProvider.class);
 
         install(new FactoryModuleBuilder()
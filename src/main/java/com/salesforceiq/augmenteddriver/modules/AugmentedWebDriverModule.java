@@ -9,6 +9,7 @@ public class AugmentedWebDriverModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(WebDriver.class).to(AugmentedWebDriver.class);
+        bind(AugmentedWebDriverProvider.class);
         bind(AugmentedWebDriver.class).toProvider(AugmentedWebDriverProvider.class);
         install(new FactoryModuleBuilder()
                 .implement(AugmentedWebElement.class, AugmentedWebElement.class)
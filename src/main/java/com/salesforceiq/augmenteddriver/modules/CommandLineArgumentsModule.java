@@ -1,6 +1,7 @@
 package com.salesforceiq.augmenteddriver.modules;
 
 import com.google.inject.AbstractModule;
+import com.salesforceiq.augmenteddriver.annotations.SharedModule;
 import com.salesforceiq.augmenteddriver.util.CommandLineArguments;
 
 /**
@@ -8,6 +9,7 @@ import com.salesforceiq.augmenteddriver.util.CommandLineArguments;
  *
  * Basically binds CommandLineArguments to the static instance that should have been already initialized.
  */
+@SharedModule
 public class CommandLineArgumentsModule extends AbstractModule {
 
     @Override
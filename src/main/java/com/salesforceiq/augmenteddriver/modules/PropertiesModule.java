@@ -1,9 +1,13 @@
 package com.salesforceiq.augmenteddriver.modules;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
 import com.google.inject.name.Names;
+import com.salesforceiq.augmenteddriver.annotations.SharedModule;
 import com.salesforceiq.augmenteddriver.util.CommandLineArguments;
 import com.salesforceiq.augmenteddriver.util.Util;
+import com.salesforceiq.augmenteddriver.util.polling.PollingStrategies;
+import com.salesforceiq.augmenteddriver.web.BrowserSideWait;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
 import java.io.FileInputStream;
@@ -18,15 +22,35 @@ import java.util.Properties;
 /**
  * Guice Module that loads all the properties file.
  */
+@SharedModule
 public class PropertiesModule extends AbstractModule {
     public static final String TEAM_CITY_INTEGRATION = "TEAM_CITY_INTEGRATION";
     public static final String REPORTING = "REPORTING";
     public static final String REMOTE_ADDRESS = "REMOTE_ADDRESS";
+    public static final String POLLING_STRATEGY = "POLLING_STRATEGY";
+    public static final String POLLING_INITIAL_IN_MILLIS = "POLLING_INITIAL_IN_MILLIS";
+    public static final String POLLING_MAX_IN_MILLIS = "POLLING_MAX_IN_MILLIS";
+    public static final String POLLING_MULTIPLIER = "POLLING_MULTIPLIER";
+    public static final String POLLING_JITTER = "POLLING_JITTER";
+    public static final String WEB_WAIT_MODE = "WEB_WAIT_MODE";
+    public static final String WEB_ELEMENT_CACHE = "WEB_ELEMENT_CACHE";
+    public static final String PAGE_QUIESCENT_IDLE_IN_MILLIS = "PAGE_QUIESCENT_IDLE_IN_MILLIS";
+    public static final String REMOTE_ADDRESSES = "REMOTE_ADDRESSES";
+    public static final String CIRCUIT_BREAKER_FAILURES = "CIRCUIT_BREAKER_FAILURES";
+    public static final String CIRCUIT_BREAKER_COOLDOWN_IN_SECONDS = "CIRCUIT_BREAKER_COOLDOWN_IN_SECONDS";
     public static final String UNIQUE_ID = "UNIQUE_ID";
     public static final String WAIT_IN_SECONDS = "WAIT_TIME_IN_SECONDS";
+    public static final String TEST_BUDGET_IN_SECONDS = "TEST_BUDGET_IN_SECONDS";
+    public static final String WAIT_TELEMETRY_DIRECTORY = "WAIT_TELEMETRY_DIRECTORY";
     public static final String MAX_RETRIES = "MAX_RETRIES";
     public static final String LOCAL_ADDRESS = "LOCAL_ADDRESS";
     public static final String CAPABILITIES = "CAPABILITIES";
+    public static final String HTTP_MAX_CONNECTIONS = "HTTP_MAX_CONNECTIONS";
+    public static final String HTTP_MAX_CONNECTIONS_PER_ROUTE = "HTTP_MAX_CONNECTIONS_PER_ROUTE";
+    public static final String HTTP_CONNECT_TIMEOUT_IN_SECONDS = "HTTP_CONNECT_TIMEOUT_IN_SECONDS";
+    public static final String HTTP_READ_TIMEOUT_IN_SECONDS = "HTTP_READ_TIMEOUT_IN_SECONDS";
+    public static final String HTTP_KEEP_ALIVE_IN_SECONDS = "HTTP_KEEP_ALIVE_IN_SECONDS";
+    public static final String HTTP_REQUEST_COMPRESSION = "HTTP_REQUEST_COMPRESSION";
 
     private static final String ID = Util.getRandomAsString();
 
@@ -37,9 +61,28 @@ public class PropertiesModule extends AbstractModule {
         {
             put(LOCAL_ADDRESS, "http://127.0.0.1:7777/wd/hub");
             put(WAIT_IN_SECONDS, "30");
+            put(TEST_BUDGET_IN_SECONDS, "0");
+            put(WAIT_TELEMETRY_DIRECTORY, "build/wait-telemetry");
             put(TEAM_CITY_INTEGRATION, "false");
             put(REPORTING, "false");
             put(MAX_RETRIES, "2");
+            put(HTTP_MAX_CONNECTIONS, "2000");
+            put(HTTP_MAX_CONNECTIONS_PER_ROUTE, "200");
+            put(HTTP_CONNECT_TIMEOUT_IN_SECONDS, "120");
+            put(HTTP_READ_TIMEOUT_IN_SECONDS, "10800");
+            put(HTTP_KEEP_ALIVE_IN_SECONDS, "30");
+            put(HTTP_REQUEST_COMPRESSION, "false");
+            put(POLLING_STRATEGY, PollingStrategies.BACKOFF);
+            put(POLLING_INITIAL_IN_MILLIS, "50");
+            put(POLLING_MAX_IN_MILLIS, "500");
+            put(POLLING_MULTIPLIER, "1.5");
+            put(POLLING_JITTER, "0.2");
+            put(WEB_WAIT_MODE, BrowserSideWait.CLIENT);
+            put(WEB_ELEMENT_CACHE, "false");
+            put(PAGE_QUIESCENT_IDLE_IN_MILLIS, "500");
+            put(REMOTE_ADDRESSES, "");
+            put(CIRCUIT_BREAKER_FAILURES, "3");
+            put(CIRCUIT_BREAKER_COOLDOWN_IN_SECONDS, "60");
         }
     };
 
@@ -71,8 +114,15 @@ public class PropertiesModule extends AbstractModule {
             throw new IllegalStateException("Capabilities were not loaded. Please set on properties file or command line args.");
         }
 
+        PollingStrategies.setDefault(PollingStrategies.create(properties.getProperty(POLLING_STRATEGY),
+                Long.valueOf(properties.getProperty(POLLING_INITIAL_IN_MILLIS)),
+                Long.valueOf(properties.getProperty(POLLING_MAX_IN_MILLIS)),
+                Double.valueOf(properties.getProperty(POLLING_MULTIPLIER)),
+                Double.valueOf(properties.getProperty(POLLING_JITTER))));
+
         Names.bindProperties(binder(), properties);
-        bind(DesiredCapabilities.class).toInstance(CommandLineArguments.ARGUMENTS.capabilities());
+        // A copy for every test, so they cannot change each other capabilities.
+        bind(DesiredCapabilities.class).toProvider((Provider<DesiredCapabilities>) () -> CommandLineArguments.ARGUMENTS.capabilities());
         bind(String.class).annotatedWith(Names.named(PropertiesModule.UNIQUE_ID)).toInstance(ID);
     }
 
@@ -89,11 +89,11 @@ public class SaucelabsModule extends AbstractIntegrationModule {
 
         // To override the app in the yaml.
         if (!Strings.isNullOrEmpty(CommandLineArguments.ARGUMENTS.app())) {
-            CommandLineArguments.ARGUMENTS.capabilities().setCapability("app", "sauce-storage:" + CommandLineArguments.ARGUMENTS.app());
+            CommandLineArguments.ARGUMENTS.overrideCapability("app", "sauce-storage:" + CommandLineArguments.ARGUMENTS.app());
         }
 
-        CommandLineArguments.ARGUMENTS.capabilities().setCapability("username", properties.getProperty(SAUCE_USER));
-        CommandLineArguments.ARGUMENTS.capabilities().setCapability("access-key", properties.getProperty(SAUCE_KEY));
+        CommandLineArguments.ARGUMENTS.overrideCapability("username", properties.getProperty(SAUCE_USER));
+        CommandLineArguments.ARGUMENTS.overrideCapability("access-key", properties.getProperty(SAUCE_KEY));
 
         String sauceKey = properties.getProperty(SAUCE_KEY);
         String sauceUser = properties.getProperty(SAUCE_USER);
@@ -1,35 +1,79 @@
 package com.salesforceiq.augmenteddriver.runners;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.salesforceiq.augmenteddriver.annotations.ExtraModules;
 import com.salesforceiq.augmenteddriver.annotations.GuiceModules;
+import com.salesforceiq.augmenteddriver.annotations.SharedModule;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.InitializationError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
+/**
+ * Runner that injects the test with the modules defined in {@link GuiceModules} and {@link ExtraModules}.
+ *
+ * <p>
+ *     Modules annotated with {@link SharedModule} are configured only once per JVM, in a parent injector that is
+ *     cached by module list. Every test gets a child injector with the rest of the modules, so the per test
+ *     cost is only the one of the test scoped bindings (drivers, functions, page objects).
+ * </p>
+ * <p>
+ *     So the {@code @Singleton}s and just-in-time bindings of the shared modules live as long as the JVM and are
+ *     shared by all the test classes with the same set of shared modules, not only by the tests of one class. Test
+ *     classes with another set get other instances, so state that has to be one per JVM has to be kept in statics.
+ *     See InjectorBenchmark for the cost of the injectors.
+ * </p>
+ */
 public class AugmentedJUnitRunner extends BlockJUnit4ClassRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(AugmentedJUnitRunner.class);
 
-    private final transient Injector injector;
+    private static final ConcurrentMap<List<Class<? extends AbstractModule>>, Injector> SHARED_INJECTORS = new ConcurrentHashMap<>();
+
+    private final transient Injector sharedInjector;
+    private final List<Class<? extends AbstractModule>> testModules;
 
     public AugmentedJUnitRunner(final Class<?> klass) throws InitializationError {
         super(klass);
         List<Class<? extends AbstractModule>> modules = getGuiceModulesFor(klass);
         modules.addAll(getExtraModulesFor(klass));
-        this.injector = this.createInjectorFor(modules);
+        List<Class<? extends AbstractModule>> sharedModules = ImmutableList.copyOf(modules
+                .stream()
+                .filter(module -> module.isAnnotationPresent(SharedModule.class))
+                .collect(Collectors.toList()));
+        this.testModules = ImmutableList.copyOf(modules
+                .stream()
+                .filter(module -> !module.isAnnotationPresent(SharedModule.class))
+                .collect(Collectors.toList()));
+        this.sharedInjector = SHARED_INJECTORS.computeIfAbsent(sharedModules, this::createInjectorFor);
     }
 
     @Override
     public final Object createTest() throws Exception {
         final Object obj = super.createTest();
-        this.injector.injectMembers(obj);
+        long start = System.nanoTime();
+        Injector injector = sharedInjector.createChildInjector(instantiate(testModules));
+        LOG.debug(String.format("Injector for %s created in %s micros", obj.getClass().getSimpleName(), (System.nanoTime() - start) / 1000));
+        injector.injectMembers(obj);
         return obj;
     }
 
-    private Injector createInjectorFor(final List<Class<? extends AbstractModule>> classes) throws InitializationError {
+    private Injector createInjectorFor(final List<Class<? extends AbstractModule>> classes) {
+        long start = System.nanoTime();
+        Injector injector = Guice.createInjector(instantiate(classes));
+        LOG.debug(String.format("Shared injector for %s created in %s micros", classes, (System.nanoTime() - start) / 1000));
+        return injector;
+    }
+
+    private List<AbstractModule> instantiate(final List<Class<? extends AbstractModule>> classes) {
         List<AbstractModule> modules = Lists.newArrayList();
 
         for (Class<? extends AbstractModule> clazz : classes) {
@@ -40,7 +84,7 @@ public class AugmentedJUnitRunner extends BlockJUnit4ClassRunner {
             }
         }
 
-        return Guice.createInjector(modules);
+        return modules;
     }
 
     private List<Class<? extends AbstractModule>> getGuiceModulesFor(final Class<?> klass) throws InitializationError {
@@ -5,11 +5,15 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.*;
 import com.google.inject.*;
+import com.google.inject.name.Named;
+import com.salesforceiq.augmenteddriver.util.CommandLatencies;
+import com.salesforceiq.augmenteddriver.util.bys.LocatorOptimizer;
 import com.salesforceiq.augmenteddriver.util.CommandLineArguments;
 import com.salesforceiq.augmenteddriver.modules.CommandLineArgumentsModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
 import com.salesforceiq.augmenteddriver.modules.TestRunnerModule;
 import com.salesforceiq.augmenteddriver.util.Util;
+import com.salesforceiq.augmenteddriver.util.WaitTelemetry;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.junit.runner.Result;
 import org.slf4j.Logger;
@@ -38,10 +42,13 @@ public class TestMethodRunner implements Callable<List<Result>> {
     private final int timeoutInMinutes;
     private final TestRunnerFactory testRunnerFactory;
     private final int parallel;
+    private final String waitTelemetryDirectory;
 
     @Inject
     public TestMethodRunner(CommandLineArguments arguments,
-                            TestRunnerFactory testRunnerFactory) {
+                            TestRunnerFactory testRunnerFactory,
+                            @Named(PropertiesModule.WAIT_TELEMETRY_DIRECTORY) String waitTelemetryDirectory) {
+        this.waitTelemetryDirectory = waitTelemetryDirectory;
         this.method = Preconditions.checkNotNull(arguments.test());
         this.testRunnerFactory = Preconditions.checkNotNull(testRunnerFactory);
         this.quantity = arguments.quantity();
@@ -63,6 +70,13 @@ public class TestMethodRunner implements Callable<List<Result>> {
         }
         executor.awaitTermination(timeoutInMinutes, TimeUnit.MINUTES);
         LOG.info(String.format("FINISHED TestMethodRunner %s in %s", testName,Util.TO_PRETTY_FORNAT.apply(System.currentTimeMillis() - start)));
+        LOG.info(String.format("Command latencies for the run:\n%s", CommandLatencies.RUN.report()));
+        LOG.info(String.format("Locators rewritten for the run:\n%s", LocatorOptimizer.report()));
+        LOG.info(String.format("Waits of the run:\n%s", WaitTelemetry.RUN.report()));
+        String changes = WaitTelemetry.RUN.save(waitTelemetryDirectory);
+        if (!changes.isEmpty()) {
+            LOG.info(changes);
+        }
         return ImmutableList.copyOf(results);
     }
 
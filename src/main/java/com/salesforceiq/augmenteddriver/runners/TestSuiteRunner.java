@@ -9,6 +9,8 @@ import com.google.common.collect.Multiset;
 import com.google.common.util.concurrent.*;
 import com.google.inject.*;
 import com.google.inject.name.Named;
+import com.salesforceiq.augmenteddriver.util.CommandLatencies;
+import com.salesforceiq.augmenteddriver.util.bys.LocatorOptimizer;
 import com.salesforceiq.augmenteddriver.util.CommandLineArguments;
 import com.salesforceiq.augmenteddriver.modules.CommandLineArgumentsModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
@@ -16,6 +18,7 @@ import com.salesforceiq.augmenteddriver.modules.TestRunnerModule;
 import com.salesforceiq.augmenteddriver.util.Quarantine;
 import com.salesforceiq.augmenteddriver.util.TestsFinder;
 import com.salesforceiq.augmenteddriver.util.Util;
+import com.salesforceiq.augmenteddriver.util.WaitTelemetry;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -50,11 +53,14 @@ public class TestSuiteRunner implements Callable<List<Result>> {
     private final boolean quarantine;
     private int totalTests;
     private final Multiset<Method> countTests;
+    private final String waitTelemetryDirectory;
 
     @Inject
     public TestSuiteRunner(CommandLineArguments arguments,
                            TestRunnerFactory testRunnerFactory,
-                           @Named(PropertiesModule.MAX_RETRIES) String maxRetries) {
+                           @Named(PropertiesModule.MAX_RETRIES) String maxRetries,
+                           @Named(PropertiesModule.WAIT_TELEMETRY_DIRECTORY) String waitTelemetryDirectory) {
+        this.waitTelemetryDirectory = waitTelemetryDirectory;
         this.testRunnerFactory = Preconditions.checkNotNull(testRunnerFactory);
         this.suites = arguments.suites();
         this.suitesPackage = arguments.suitesPackage();
@@ -89,6 +95,13 @@ public class TestSuiteRunner implements Callable<List<Result>> {
         LOG.info(String.format("Total tests running: %s", totalTests));
         executor.awaitTermination(timeoutInMinutes, TimeUnit.MINUTES);
         LOG.info(String.format("FINISHED TestSuiteRunner for suites [%s] in %s", suites, Util.TO_PRETTY_FORNAT.apply(System.currentTimeMillis() - start)));
+        LOG.info(String.format("Command latencies for the run:\n%s", CommandLatencies.RUN.report()));
+        LOG.info(String.format("Locators rewritten for the run:\n%s", LocatorOptimizer.report()));
+        LOG.info(String.format("Waits of the run:\n%s", WaitTelemetry.RUN.report()));
+        String changes = WaitTelemetry.RUN.save(waitTelemetryDirectory);
+        if (!changes.isEmpty()) {
+            LOG.info(changes);
+        }
         return ImmutableList.copyOf(results);
     }
 
@@ -11,6 +11,7 @@ import com.salesforceiq.augmenteddriver.mobile.android.pageobjects.AndroidPageOb
 import com.salesforceiq.augmenteddriver.mobile.android.pageobjects.AndroidPageObjectActionsInterface;
 import com.salesforceiq.augmenteddriver.modules.AugmentedAndroidDriverModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.CommandLatencies;
 import org.openqa.selenium.By;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +53,11 @@ public class AugmentedAndroidTestCase extends AugmentedBaseTestCase implements A
         this.sessionId = driver.getSessionId().toString();
     }
 
+    @Override
+    protected CommandLatencies commandLatencies() {
+        return driver == null ? null : driver.commandLatencies();
+    }
+
     @Override
     protected void closeDriver() {
         if (driver == null) return;
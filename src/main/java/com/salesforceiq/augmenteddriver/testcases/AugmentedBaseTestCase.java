@@ -2,13 +2,18 @@ package com.salesforceiq.augmenteddriver.testcases;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.asserts.AugmentedAssertInterface;
 import com.salesforceiq.augmenteddriver.integrations.Integration;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
 import com.salesforceiq.augmenteddriver.runners.AugmentedJUnitRunner;
+import com.salesforceiq.augmenteddriver.util.CommandLatencies;
 import com.salesforceiq.augmenteddriver.util.CommandLineArguments;
+import com.salesforceiq.augmenteddriver.util.GridEndpoints;
+import com.salesforceiq.augmenteddriver.util.SharedHttpClientFactory;
+import com.salesforceiq.augmenteddriver.util.TestBudget;
 import com.salesforceiq.augmenteddriver.util.Util;
 import org.junit.After;
 import org.junit.Before;
@@ -17,6 +22,7 @@ import org.junit.rules.TestName;
 import org.junit.rules.TestWatcher;
 import org.junit.runner.Description;
 import org.junit.runner.RunWith;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import org.slf4j.Logger;
 import java.net.MalformedURLException;
@@ -41,6 +47,10 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
     @Named(PropertiesModule.WAIT_IN_SECONDS)
     private String waitTimeInSeconds;
 
+    @Inject
+    @Named(PropertiesModule.TEST_BUDGET_IN_SECONDS)
+    private String testBudgetInSeconds;
+
     @Inject
     @Named(PropertiesModule.UNIQUE_ID)
     private String uniqueId;
@@ -62,6 +72,20 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
     @Inject(optional = true)
     protected Set<Integration> integrations = new HashSet<>();
 
+    /**
+     * Shared by all the tests of the run, also used by the Appium drivers as default.
+     */
+    @Inject
+    protected SharedHttpClientFactory httpClientFactory;
+
+    /**
+     * Hubs defined in REMOTE_ADDRESSES, when there are any they are used instead of REMOTE_ADDRESS.
+     */
+    @Inject
+    protected GridEndpoints gridEndpoints;
+
+    private GridEndpoints.Lease gridLease;
+
     /**
      * Hack, but there is no way to get the session Id in other way.
      */
@@ -73,6 +97,11 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
 
     protected abstract void closeDriver();
 
+    /**
+     * @return the latencies of the commands sent during the test, null if the driver was not created.
+     */
+    protected abstract CommandLatencies commandLatencies();
+
     /**
      * <p>
      *     IMPORTANT, the session of the driver is set after the driver is initialized.
@@ -82,7 +111,7 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
     public void setUp() {
         logIntegrationsAvailable();
 
-        if (remoteAddress == null) {
+        if (remoteAddress == null && !gridEndpoints.isEnabled()) {
             logger().info("No Remote Address defined, using local address");
             remoteAddress = localAddress;
         }
@@ -91,13 +120,21 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
         logger().info("Creating Augmented Driver");
 
         try {
-            initializeDriver();
+            if (gridEndpoints.isEnabled()) {
+                initializeDriverInGrid();
+            } else {
+                initializeDriver();
+            }
         } catch (MalformedURLException e) {
             throw new IllegalArgumentException("Check your addresses on the properties file", e);
         }
 
         logger().info("Augmented Driver created in " + Util.TO_PRETTY_FORNAT.apply(System.currentTimeMillis() - start));
 
+        if (testBudgetInSeconds() > 0) {
+            TestBudget.start(getFullTestName(), testBudgetInSeconds());
+        }
+
         integrations
                 .stream()
                 .filter(each -> each.isEnabled())
@@ -109,7 +146,58 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
 
     @After
     public void tearDown() {
-        closeDriver();
+        TestBudget budget = TestBudget.current();
+        if (budget != null) {
+            logger().debug(String.format("Time budget of %s: %s", getFullTestName(), budget.report()));
+            TestBudget.clear();
+        }
+        CommandLatencies commandLatencies = commandLatencies();
+        if (commandLatencies != null) {
+            logger().info(String.format("Command latencies for %s:\n%s", getFullTestName(), commandLatencies.report()));
+        }
+        try {
+            closeDriver();
+        } finally {
+            if (gridLease != null) {
+                gridLease.release();
+                logger().debug("Grid endpoints:\n" + gridEndpoints.report());
+            }
+        }
+        logger().debug("HTTP connection pool: " + httpClientFactory.getTotalStats());
+    }
+
+    /**
+     * Creates the driver in the least loaded hub, trying the next one if it fails (at most once per hub).
+     */
+    private void initializeDriverInGrid() throws MalformedURLException {
+        WebDriverException lastFailure = null;
+        Set<String> failedHubs = Sets.newHashSet();
+        for (int attempt = 0; attempt < gridEndpoints.size(); attempt++) {
+            try {
+                gridLease = gridEndpoints.acquire(failedHubs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for a free hub", e);
+            }
+            remoteAddress = gridLease.getAddress();
+            try {
+                initializeDriver();
+                gridLease.created();
+                logger().info("Session " + sessionId + " created on " + remoteAddress);
+                return;
+            } catch (WebDriverException e) {
+                logger().warn("Failed creating session on " + remoteAddress, e);
+                lastFailure = e;
+                failedHubs.add(remoteAddress);
+                gridLease.failed();
+                gridLease = null;
+            } catch (RuntimeException | MalformedURLException e) {
+                gridLease.release();
+                gridLease = null;
+                throw e;
+            }
+        }
+        throw lastFailure;
     }
 
     private void logIntegrationsAvailable() {
@@ -120,6 +208,14 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
                 .forEach(each -> logger().info(each.getClass() + " - Enabled: " + each.isEnabled()));
     }
 
+    /**
+     * @return the maximum time the waits of the test can take together, TEST_BUDGET_IN_SECONDS by default (0 is no
+     *         budget). Starts counting once the driver is created.
+     */
+    protected int testBudgetInSeconds() {
+        return Integer.valueOf(testBudgetInSeconds);
+    }
+
     /**
      * @return the wait time in seconds defined in the com.salesforceiq.augmenteddriver.properties (or 30 by default)
      */
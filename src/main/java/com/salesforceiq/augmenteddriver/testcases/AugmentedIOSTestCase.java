@@ -11,6 +11,7 @@ import com.salesforceiq.augmenteddriver.mobile.ios.pageobjects.IOSPageObjectActi
 import com.salesforceiq.augmenteddriver.mobile.ios.pageobjects.IOSPageObjectActionsInterface;
 import com.salesforceiq.augmenteddriver.modules.AugmentedIOSDriverModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.CommandLatencies;
 import org.openqa.selenium.By;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +50,11 @@ public class AugmentedIOSTestCase extends AugmentedBaseTestCase implements IOSPa
         this.sessionId = driver.getSessionId().toString();
     }
 
+    @Override
+    protected CommandLatencies commandLatencies() {
+        return driver == null ? null : driver.commandLatencies();
+    }
+
     @Override
     protected void closeDriver() {
         if (driver == null) return;
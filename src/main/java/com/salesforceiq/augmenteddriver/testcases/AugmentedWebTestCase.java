@@ -6,6 +6,7 @@ import com.salesforceiq.augmenteddriver.annotations.GuiceModules;
 import com.salesforceiq.augmenteddriver.asserts.AugmentedAssert;
 import com.salesforceiq.augmenteddriver.modules.AugmentedWebDriverModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.CommandLatencies;
 import com.salesforceiq.augmenteddriver.web.*;
 import com.salesforceiq.augmenteddriver.web.pageobjects.WebPageContainerObject;
 import com.salesforceiq.augmenteddriver.web.pageobjects.WebPageObject;
@@ -63,7 +64,7 @@ public class AugmentedWebTestCase extends AugmentedBaseTestCase implements WebPa
 
     @Override
     protected void initializeDriver() throws MalformedURLException {
-        this.driver = new AugmentedWebDriver(remoteAddress, capabilities);
+        this.driver = new AugmentedWebDriver(remoteAddress, capabilities, httpClientFactory);
         this.augmentedWebFunctions = augmentedWebFunctionsFactory.create(driver);
 
         driver.setAugmentedFunctions(augmentedWebFunctions);
@@ -72,9 +73,17 @@ public class AugmentedWebTestCase extends AugmentedBaseTestCase implements WebPa
         this.sessionId = driver.getSessionId().toString();
     }
 
+    @Override
+    protected CommandLatencies commandLatencies() {
+        return driver == null ? null : driver.commandLatencies();
+    }
+
     @Override
     public void closeDriver() {
         if (driver == null) return;
+        if (driver.elementCache().lookups() > 0) {
+            LOG.info(String.format("Element cache for %s: %s", getFullTestName(), driver.elementCache().report()));
+        }
         driver.close();
     }
 
@@ -4,6 +4,7 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Augmented functionality on top of the WebDriver.
@@ -141,6 +142,62 @@ public interface AugmentedFunctions<T extends WebElement> {
      */
     List<T> findElementsClickableAfter(By by, int waitInSeconds);
 
+    /**
+     * Waits up to the default time until any of the bys finds a present element, all of them polled together.
+     *
+     * @return the first of the bys (in order) that found one, and the element.
+     */
+    LocatorMatch<T> findAnyElementPresent(By... bys);
+
+    /**
+     * Waits up to waitInSeconds until any of the bys finds a present element, all of them polled together.
+     *
+     * @return the first of the bys (in order) that found one, and the element.
+     */
+    LocatorMatch<T> findAnyElementPresentAfter(List<By> bys, int waitInSeconds);
+
+    /**
+     * Waits up to the default time until any of the bys finds a visible element, all of them polled together.
+     *
+     * @return the first of the bys (in order) that found one, and the element.
+     */
+    LocatorMatch<T> findAnyElementVisible(By... bys);
+
+    /**
+     * Waits up to waitInSeconds until any of the bys finds a visible element, all of them polled together.
+     *
+     * @return the first of the bys (in order) that found one, and the element.
+     */
+    LocatorMatch<T> findAnyElementVisibleAfter(List<By> bys, int waitInSeconds);
+
+    /**
+     * Waits up to the default time until every by finds a present element.
+     *
+     * @return one match per by, in the same order.
+     */
+    List<LocatorMatch<T>> findAllElementsPresent(By... bys);
+
+    /**
+     * Waits up to waitInSeconds until every by finds a present element.
+     *
+     * @return one match per by, in the same order.
+     */
+    List<LocatorMatch<T>> findAllElementsPresentAfter(List<By> bys, int waitInSeconds);
+
+    /**
+     * Waits up to the default time until every by finds a visible element.
+     *
+     * @return one match per by, in the same order.
+     */
+    List<LocatorMatch<T>> findAllElementsVisible(By... bys);
+
+    /**
+     * Waits up to waitInSeconds until every by finds a visible element.
+     *
+     * @return one match per by, in the same order.
+     */
+    List<LocatorMatch<T>> findAllElementsVisibleAfter(List<By> bys, int waitInSeconds);
+
     /**
      * Waits up to the default time until no element identified by by is present
      */
@@ -185,4 +242,44 @@ public interface AugmentedFunctions<T extends WebElement> {
     void clearAndSendKeys(By by, String text);
 
     void clearAndSendKeysAfter(By by, String text, int waitInSeconds);
+
+    /**
+     * Async version of {@link #findElementPresent(By)}, the future fails with the same exceptions.
+     *
+     * <p>
+     *     The polls of the async waits run in a shared scheduler, no thread sleeps between them, so a test can wait
+     *     for many things at once, or wait while it does something else.
+     * </p>
+     */
+    CompletableFuture<T> findElementPresentAsync(By by);
+
+    CompletableFuture<T> findElementPresentAfterAsync(By by, int waitSeconds);
+
+    /**
+     * Async version of {@link #findElementVisible(By)}, the future fails with the same exceptions.
+     */
+    CompletableFuture<T> findElementVisibleAsync(By by);
+
+    CompletableFuture<T> findElementVisibleAfterAsync(By by, int waitSeconds);
+
+    /**
+     * Async version of {@link #findElementClickable(By)}, the future fails with the same exceptions.
+     */
+    CompletableFuture<T> findElementClickableAsync(By by);
+
+    CompletableFuture<T> findElementClickableAfterAsync(By by, int waitSeconds);
+
+    /**
+     * Async version of {@link #waitElementToNotBePresent(By)}, the future fails with the same exceptions.
+     */
+    CompletableFuture<Void> waitElementToNotBePresentAsync(By by);
+
+    CompletableFuture<Void> waitElementToNotBePresentAfterAsync(By by, int waitInSeconds);
+
+    /**
+     * Async version of {@link #waitElementToNotBeVisible(By)}, the future fails with the same exceptions.
+     */
+    CompletableFuture<Void> waitElementToNotBeVisibleAsync(By by);
+
+    CompletableFuture<Void> waitElementToNotBeVisibleAfterAsync(By by, int waitInSeconds);
 }
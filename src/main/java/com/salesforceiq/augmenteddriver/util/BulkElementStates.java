@@ -0,0 +1,178 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.Resources;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Filters many elements by visibility or clickability without one round trip per element and check.
+ *
+ * <p>
+ *     On web all the elements are checked with one script, that uses the same definitions as the drivers: the
+ *     isShown atom of Selenium for isDisplayed and a port of its isEnabled atom, see {@link #STATE_FUNCTIONS}. A
+ *     single element is checked with isDisplayed and isEnabled. Appium cannot run scripts on native apps, and runs
+ *     the commands of a session one after the other, so there the elements are checked one by one.
+ * </p>
+ */
+public class BulkElementStates {
+
+    /**
+     * The isShown atom as bundled by selenium-java (the Selenium RC isVisible command is built on it).
+     */
+    private static final String IS_SHOWN_ATOM = "/com/thoughtworks/selenium/webdriven/isVisible.js";
+
+    /**
+     * bot.dom.isEnabled of Selenium: only form controls can be disabled, by themselves, by their select or optgroup,
+     * or by a disabled fieldset unless they are in its first legend.
+     */
+    private static final String ENABLED_FUNCTION =
+            "function enabled(element) {\n" +
+            "  var tag = element.tagName.toUpperCase();\n" +
+            "  if (['BUTTON', 'INPUT', 'OPTGROUP', 'OPTION', 'SELECT', 'TEXTAREA'].indexOf(tag) < 0) { return true; }\n" +
+            "  if (element.disabled) { return false; }\n" +
+            "  var parent = element.parentNode;\n" +
+            "  if (parent && parent.nodeType === 1 && (tag === 'OPTGROUP' || tag === 'OPTION')) { return enabled(parent); }\n" +
+            "  for (var node = element; node && node.parentNode; node = node.parentNode) {\n" +
+            "    parent = node.parentNode;\n" +
+            "    if (parent.nodeType === 1 && parent.tagName.toUpperCase() === 'FIELDSET' && parent.disabled) {\n" +
+            "      if (node.nodeType !== 1 || node.tagName.toUpperCase() !== 'LEGEND') { return false; }\n" +
+            "      for (var sibling = node.previousElementSibling; sibling; sibling = sibling.previousElementSibling) {\n" +
+            "        if (sibling.tagName.toUpperCase() === 'LEGEND') { return false; }\n" +
+            "      }\n" +
+            "    }\n" +
+            "  }\n" +
+            "  return true;\n" +
+            "}\n";
+
+    /**
+     * Javascript functions visible(element) and enabled(element), what isDisplayed and isEnabled answer.
+     *
+     * <p>
+     *     The atom is about 55KB, the scripts should run with {@link #executeScript} or {@link #executeAsyncScript}
+     *     so it is sent once per page.
+     * </p>
+     */
+    public static final String STATE_FUNCTIONS = "var visible = " + atom() + ";\n" + ENABLED_FUNCTION;
+
+    private static final String MISSING = "augmented-states-missing";
+
+    private static final String INSTALL_SCRIPT = STATE_FUNCTIONS +
+            "window.__augmentedStates = {visible: visible, enabled: enabled};\n";
+
+    private static final String USE_INSTALLED =
+            "if (!window.__augmentedStates) { return '" + MISSING + "'; }\n" +
+            "var visible = window.__augmentedStates.visible, enabled = window.__augmentedStates.enabled;\n";
+
+    private static final String USE_INSTALLED_ASYNC =
+            "if (!window.__augmentedStates) { arguments[arguments.length - 1]('" + MISSING + "'); return; }\n" +
+            "var visible = window.__augmentedStates.visible, enabled = window.__augmentedStates.enabled;\n";
+
+    private static final String STATES_SCRIPT =
+            "var clickable = arguments[1];\n" +
+            "return Array.prototype.map.call(arguments[0], function(element) {\n" +
+            "  return visible(element) && (!clickable || enabled(element));\n" +
+            "});\n";
+
+    /**
+     * @return the elements that are displayed, in the same order.
+     */
+    public static List<WebElement> visible(List<WebElement> elements) {
+        return filter(elements, false);
+    }
+
+    /**
+     * @return the elements that are displayed and enabled, in the same order.
+     */
+    public static List<WebElement> clickable(List<WebElement> elements) {
+        return filter(elements, true);
+    }
+
+    private static List<WebElement> filter(List<WebElement> elements, boolean clickable) {
+        Preconditions.checkNotNull(elements);
+        if (elements.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (elements.size() == 1) {
+            return matches(elements.get(0), clickable) ? elements : Collections.emptyList();
+        }
+        WebDriver driver = elements.get(0) instanceof WrapsDriver ? ((WrapsDriver) elements.get(0)).getWrappedDriver() : null;
+        if (driver instanceof JavascriptExecutor && !(driver instanceof AppiumDriver)) {
+            return withScript((JavascriptExecutor) driver, elements, clickable);
+        }
+        return elements
+                .stream()
+                .filter(element -> matches(element, clickable))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs a synchronous script that uses visible(element) and enabled(element).
+     *
+     * <p>
+     *     The functions are kept in the page, so the atom is only sent again after the page changes.
+     * </p>
+     */
+    public static Object executeScript(JavascriptExecutor driver, String script, Object... arguments) {
+        Preconditions.checkNotNull(driver);
+        Preconditions.checkNotNull(script);
+        Object result = driver.executeScript(USE_INSTALLED + script, arguments);
+        if (MISSING.equals(result)) {
+            driver.executeScript(INSTALL_SCRIPT);
+            result = driver.executeScript(USE_INSTALLED + script, arguments);
+        }
+        return result;
+    }
+
+    /**
+     * Runs an asynchronous script that uses visible(element) and enabled(element), like {@link #executeScript}.
+     */
+    public static Object executeAsyncScript(JavascriptExecutor driver, String script, Object... arguments) {
+        Preconditions.checkNotNull(driver);
+        Preconditions.checkNotNull(script);
+        Object result = driver.executeAsyncScript(USE_INSTALLED_ASYNC + script, arguments);
+        if (MISSING.equals(result)) {
+            driver.executeScript(INSTALL_SCRIPT);
+            result = driver.executeAsyncScript(USE_INSTALLED_ASYNC + script, arguments);
+        }
+        return result;
+    }
+
+    private static List<WebElement> withScript(JavascriptExecutor driver, List<WebElement> elements, boolean clickable) {
+        Object result = executeScript(driver, STATES_SCRIPT, elements, clickable);
+        if (!(result instanceof List) || ((List<?>) result).size() != elements.size()) {
+            throw new WebDriverException("Unexpected result checking the state of the elements: " + result);
+        }
+        List<?> states = (List<?>) result;
+        List<WebElement> matching = new ArrayList<>();
+        for (int index = 0; index < elements.size(); index++) {
+            if (Boolean.TRUE.equals(states.get(index))) {
+                matching.add(elements.get(index));
+            }
+        }
+        return matching;
+    }
+
+    private static boolean matches(WebElement element, boolean clickable) {
+        return element.isDisplayed() && (!clickable || element.isEnabled());
+    }
+
+    private static String atom() {
+        try {
+            return Resources.toString(Resources.getResource(BulkElementStates.class, IS_SHOWN_ATOM), StandardCharsets.UTF_8).trim();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("The isShown atom of selenium-java is not in the classpath", e);
+        }
+    }
+}
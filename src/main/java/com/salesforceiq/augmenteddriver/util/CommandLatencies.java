@@ -0,0 +1,65 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Latency histograms of the remote commands sent by the drivers, one per command name.
+ *
+ * <p>
+ *     Every driver records into its own instance (per test), which also records into {@link #RUN}, the
+ *     histograms of the whole run.
+ * </p>
+ */
+public class CommandLatencies {
+
+    public static final CommandLatencies RUN = new CommandLatencies(null);
+
+    private final CommandLatencies parent;
+    private final ConcurrentMap<String, LatencyHistogram> histograms;
+
+    private CommandLatencies(CommandLatencies parent) {
+        this.parent = parent;
+        this.histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return new histograms for one test, that also record into the run ones.
+     */
+    public static CommandLatencies forTest() {
+        return new CommandLatencies(RUN);
+    }
+
+    public void record(String command, long durationInNanos) {
+        Preconditions.checkNotNull(command);
+        LatencyHistogram histogram = histograms.get(command);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(command, key -> new LatencyHistogram());
+        }
+        histogram.record(durationInNanos, TimeUnit.NANOSECONDS);
+        if (parent != null) {
+            parent.record(command, durationInNanos);
+        }
+    }
+
+    public Map<String, LatencyHistogram> histograms() {
+        return histograms;
+    }
+
+    /**
+     * @return one line per command, the ones where more time was spent first.
+     */
+    public String report() {
+        return histograms.entrySet()
+                .stream()
+                .sorted(Comparator.comparing((Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().totalInMillis()).reversed())
+                .map(entry -> String.format("%-30s %s", entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining("\n"));
+    }
+}
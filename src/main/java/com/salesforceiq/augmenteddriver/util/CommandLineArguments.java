@@ -104,9 +104,28 @@ public class CommandLineArguments {
         return ARGUMENTS.quarantine;
     }
 
+    /**
+     * @return a copy of the capabilities, every session should use its own.
+     */
     public DesiredCapabilities capabilities() {
         Preconditions.checkNotNull(ARGUMENTS, "Call CommandLineArguments#intialize first");
-        return ARGUMENTS.capabilities;
+        DesiredCapabilities capabilities = ARGUMENTS.capabilities;
+        return capabilities == null ? null : new DesiredCapabilities(capabilities);
+    }
+
+    /**
+     * Overrides one capability for the sessions created from now on.
+     *
+     * <p>
+     *     The capabilities are replaced by a modified copy, so the ones already handed out do not change.
+     * </p>
+     */
+    public synchronized void overrideCapability(String name, Object value) {
+        Preconditions.checkNotNull(ARGUMENTS, "Call CommandLineArguments#intialize first");
+        Preconditions.checkNotNull(ARGUMENTS.capabilities, "You should specify capabilites with -capabilities parameter");
+        DesiredCapabilities copy = new DesiredCapabilities(ARGUMENTS.capabilities);
+        copy.setCapability(name, value);
+        ARGUMENTS.capabilities = copy;
     }
 
     public String conf() {
@@ -147,7 +166,7 @@ public class CommandLineArguments {
     private boolean quarantine = false;
 
     @Parameter(names = "-capabilities", description = "Path to the YAML with the desired capabilities", converter = CapabilitiesConverter.class)
-    private DesiredCapabilities capabilities;
+    private volatile DesiredCapabilities capabilities;
 
     @Parameter(names = "-conf", description = "Path to the properties file, conf/augmented.properties by default")
     private String conf = DEFAULT_CONFIG;
@@ -0,0 +1,99 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.TouchAction;
+import org.openqa.selenium.WebElement;
+
+/**
+ * A touch sequence of many steps, sent to the server in one command when performed.
+ *
+ * <p>
+ *     The coordinates are absolute, like the ones of {@link AppiumDriver#swipe(int, int, int, int, int)}. The steps on
+ *     an element are relative to its top left corner, the server finds where the element is, so there is no need to
+ *     ask for its location first.
+ * </p>
+ * <p>
+ *     I.e. Gesture.on(driver).swipe(500, 1500, 500, 300, 1000).tap(element, 5, 5, 500).perform() scrolls a list and
+ *     taps an element with one command.
+ * </p>
+ */
+public final class Gesture {
+
+    private final AppiumDriver<?> driver;
+    private final TouchAction action;
+    private int steps;
+
+    private Gesture(AppiumDriver<?> driver) {
+        this.driver = driver;
+        this.action = new TouchAction(driver);
+    }
+
+    public static Gesture on(AppiumDriver<?> driver) {
+        return new Gesture(Preconditions.checkNotNull(driver));
+    }
+
+    public Gesture press(int x, int y) {
+        action.press(x, y);
+        return step();
+    }
+
+    public Gesture press(WebElement element, int offsetX, int offsetY) {
+        action.press(Preconditions.checkNotNull(element), offsetX, offsetY);
+        return step();
+    }
+
+    public Gesture waitFor(int millis) {
+        Preconditions.checkArgument(millis >= 0);
+        action.waitAction(millis);
+        return step();
+    }
+
+    public Gesture moveTo(int x, int y) {
+        action.moveTo(x, y);
+        return step();
+    }
+
+    public Gesture release() {
+        action.release();
+        return step();
+    }
+
+    /**
+     * Presses on the point for pressInMillis.
+     */
+    public Gesture tap(int x, int y, int pressInMillis) {
+        return press(x, y).waitFor(pressInMillis).release();
+    }
+
+    /**
+     * Presses on the element, offsetX and offsetY pixels from its top left corner, for pressInMillis.
+     */
+    public Gesture tap(WebElement element, int offsetX, int offsetY, int pressInMillis) {
+        return press(element, offsetX, offsetY).waitFor(pressInMillis).release();
+    }
+
+    public Gesture swipe(int fromX, int fromY, int toX, int toY, int durationInMillis) {
+        return press(fromX, fromY).waitFor(durationInMillis).moveTo(toX, toY).release();
+    }
+
+    /**
+     * @return how many steps the gesture has.
+     */
+    public int steps() {
+        return steps;
+    }
+
+    /**
+     * Sends all the steps in one command.
+     */
+    public void perform() {
+        Preconditions.checkState(steps > 0, "The gesture has no steps");
+        driver.performTouchAction(action);
+    }
+
+    private Gesture step() {
+        steps++;
+        return this;
+    }
+}
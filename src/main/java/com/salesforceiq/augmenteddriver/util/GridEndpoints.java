@@ -0,0 +1,269 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The hubs where sessions are created, when more than one is defined in REMOTE_ADDRESSES.
+ *
+ * <p>
+ *     Each hub is defined as address|weight|maxSessions (weight and maxSessions are optional), separated by commas,
+ *     for example: http://hub1:4444/wd/hub|2|40,http://hub2:4444/wd/hub|1|20
+ * </p>
+ * <p>
+ *     Every session goes to the healthy hub with less open sessions relative to its weight, and waits if all of them
+ *     are full. A hub that fails creating sessions CIRCUIT_BREAKER_FAILURES times in a row is not used for
+ *     CIRCUIT_BREAKER_COOLDOWN_IN_SECONDS, after that one session is tried on it again.
+ * </p>
+ * <p>
+ *     The state of each hub (open sessions, failures, circuit) is kept per JVM, by address, so the test classes with
+ *     other {@link com.salesforceiq.augmenteddriver.annotations.SharedModule}s, that get another instance (see
+ *     {@link com.salesforceiq.augmenteddriver.runners.AugmentedJUnitRunner}), count against the same maxSessions.
+ *     The weight and maxSessions of a hub are the ones of the first instance that defines it. Other processes
+ *     count their own sessions.
+ * </p>
+ */
+@Singleton
+public class GridEndpoints {
+    private static final Logger LOG = LoggerFactory.getLogger(GridEndpoints.class);
+
+    /**
+     * The hubs of the JVM by address, guarded by (and waited on) the lock.
+     */
+    private static final Map<String, Endpoint> ENDPOINTS = new HashMap<>();
+    private static final Object LOCK = new Object();
+
+    private final List<Endpoint> endpoints;
+    private final int failuresToOpen;
+    private final long cooldownInNanos;
+
+    @Inject
+    public GridEndpoints(@Named(PropertiesModule.REMOTE_ADDRESSES) String remoteAddresses,
+                         @Named(PropertiesModule.CIRCUIT_BREAKER_FAILURES) String failuresToOpen,
+                         @Named(PropertiesModule.CIRCUIT_BREAKER_COOLDOWN_IN_SECONDS) String cooldownInSeconds) {
+        this.endpoints = parse(Preconditions.checkNotNull(remoteAddresses));
+        this.failuresToOpen = Integer.valueOf(Preconditions.checkNotNull(failuresToOpen));
+        this.cooldownInNanos = TimeUnit.SECONDS.toNanos(Integer.valueOf(Preconditions.checkNotNull(cooldownInSeconds)));
+        Preconditions.checkArgument(this.failuresToOpen > 0, "CIRCUIT_BREAKER_FAILURES has to be positive");
+    }
+
+    private static List<Endpoint> parse(String remoteAddresses) {
+        return Splitter.on(',')
+                .trimResults()
+                .omitEmptyStrings()
+                .splitToList(remoteAddresses)
+                .stream()
+                .map(definition -> {
+                    List<String> parts = Splitter.on('|').trimResults().splitToList(definition);
+                    Preconditions.checkArgument(parts.size() <= 3 && !Strings.isNullOrEmpty(parts.get(0)),
+                            "Invalid remote address " + definition);
+                    int weight = parts.size() > 1 ? Integer.valueOf(parts.get(1)) : 1;
+                    int maxSessions = parts.size() > 2 ? Integer.valueOf(parts.get(2)) : Integer.MAX_VALUE;
+                    Preconditions.checkArgument(weight > 0 && maxSessions > 0, "Invalid remote address " + definition);
+                    synchronized (LOCK) {
+                        return ENDPOINTS.computeIfAbsent(parts.get(0), address -> new Endpoint(address, weight, maxSessions));
+                    }
+                })
+                .collect(Collectors.collectingAndThen(Collectors.toList(), ImmutableList::copyOf));
+    }
+
+    /**
+     * @return whether any hub was defined in REMOTE_ADDRESSES.
+     */
+    public boolean isEnabled() {
+        return !endpoints.isEmpty();
+    }
+
+    public int size() {
+        return endpoints.size();
+    }
+
+    /**
+     * Takes a session slot in the best hub, waiting until one is available.
+     *
+     * <p>
+     *     IMPORTANT: the lease has to be released once the session is closed (or could not be created).
+     * </p>
+     */
+    public Lease acquire() throws InterruptedException {
+        return acquire(Collections.emptySet());
+    }
+
+    /**
+     * Takes a session slot in the best hub that is not one of the excluded addresses, waiting until one is
+     * available.
+     *
+     * @param excluded addresses not to use, i.e. the hubs that already failed creating this session.
+     */
+    public Lease acquire(Set<String> excluded) throws InterruptedException {
+        Preconditions.checkState(isEnabled(), "No REMOTE_ADDRESSES defined");
+        Preconditions.checkNotNull(excluded);
+        Preconditions.checkArgument(endpoints.stream().anyMatch(endpoint -> !excluded.contains(endpoint.address)),
+                "Every hub is excluded");
+        synchronized (LOCK) {
+            return waitForEndpoint(excluded);
+        }
+    }
+
+    private Lease waitForEndpoint(Set<String> excluded) throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            Endpoint best = endpoints
+                    .stream()
+                    .filter(endpoint -> !excluded.contains(endpoint.address))
+                    .filter(endpoint -> endpoint.isAvailable(now))
+                    .min(Comparator.comparingDouble(Endpoint::load))
+                    .orElse(null);
+            if (best != null) {
+                return new Lease(best, best.take());
+            }
+            long waitInNanos = endpoints
+                    .stream()
+                    .filter(endpoint -> endpoint.openUntil > now)
+                    .mapToLong(endpoint -> endpoint.openUntil - now)
+                    .min()
+                    .orElse(TimeUnit.SECONDS.toNanos(1));
+            TimeUnit.NANOSECONDS.timedWait(LOCK, Math.max(1, waitInNanos));
+        }
+    }
+
+    private void release(Endpoint endpoint, boolean probe, boolean failed) {
+        synchronized (LOCK) {
+            endpoint.active--;
+            if (probe) {
+                endpoint.probing = false;
+            }
+            if (failed && ++endpoint.failures >= failuresToOpen) {
+                endpoint.openUntil = System.nanoTime() + cooldownInNanos;
+                LOG.warn(String.format("%s failed creating %s sessions in a row, not used for %s seconds",
+                        endpoint.address, endpoint.failures, TimeUnit.NANOSECONDS.toSeconds(cooldownInNanos)));
+            }
+            LOCK.notifyAll();
+        }
+    }
+
+    /**
+     * @return one line per hub, with the open sessions, the state and the latency of creating sessions.
+     */
+    public String report() {
+        synchronized (LOCK) {
+            long now = System.nanoTime();
+            return endpoints
+                    .stream()
+                    .map(endpoint -> String.format("%-40s active=%s/%s %s session creation: %s",
+                            endpoint.address,
+                            endpoint.active,
+                            endpoint.maxSessions == Integer.MAX_VALUE ? "-" : endpoint.maxSessions,
+                            endpoint.openUntil > now ? "OPEN" : "CLOSED",
+                            endpoint.sessionLatency))
+                    .collect(Collectors.joining("\n"));
+        }
+    }
+
+    private static class Endpoint {
+        private final String address;
+        private final int weight;
+        private final int maxSessions;
+        private final LatencyHistogram sessionLatency;
+        private int active;
+        private int failures;
+        private long openUntil;
+        private boolean probing;
+
+        private Endpoint(String address, int weight, int maxSessions) {
+            this.address = address;
+            this.weight = weight;
+            this.maxSessions = maxSessions;
+            this.sessionLatency = new LatencyHistogram();
+        }
+
+        private boolean isAvailable(long now) {
+            return active < maxSessions && openUntil <= now && !probing;
+        }
+
+        /**
+         * After the cooldown only one session is tried, until it is created or fails.
+         *
+         * @return whether this is that session, the probe.
+         */
+        private boolean take() {
+            active++;
+            probing = openUntil != 0;
+            return probing;
+        }
+
+        private double load() {
+            return (double) active / weight;
+        }
+    }
+
+    /**
+     * A session slot in one hub.
+     */
+    public class Lease {
+        private final Endpoint endpoint;
+        private final boolean probe;
+        private final long start;
+        private boolean released;
+
+        private Lease(Endpoint endpoint, boolean probe) {
+            this.endpoint = endpoint;
+            this.probe = probe;
+            this.start = System.nanoTime();
+        }
+
+        public String getAddress() {
+            return endpoint.address;
+        }
+
+        /**
+         * The session was created, the slot is kept until {@link #release()}.
+         */
+        public void created() {
+            synchronized (LOCK) {
+                endpoint.failures = 0;
+                endpoint.openUntil = 0;
+                endpoint.probing = false;
+                endpoint.sessionLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                LOCK.notifyAll();
+            }
+        }
+
+        /**
+         * The hub could not create the session, the slot is released.
+         */
+        public void failed() {
+            if (!released) {
+                released = true;
+                GridEndpoints.this.release(endpoint, probe, true);
+            }
+        }
+
+        /**
+         * The session was closed.
+         */
+        public void release() {
+            if (!released) {
+                released = true;
+                GridEndpoints.this.release(endpoint, probe, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timing wheel: one thread that ticks every tickInMillis and runs the tasks that are due.
+ *
+ * <p>
+ *     Scheduling a task and running it cost the same whatever the number of pending tasks, and one thread serves
+ *     all of them, at the cost of running a task up to one tick late. The tasks run in the tick thread, so they
+ *     have to be short, hand anything that talks to a driver to an executor. It does not tick while nothing is
+ *     pending.
+ * </p>
+ * <p>
+ *     It pays off with many tasks. With few of them the ticks and the hand-off cost more than sleeping threads: in
+ *     WaitSchedulerBenchmark the {@link WaitScheduler} spends 2.5 to 3 times more CPU per wait than one sleeping
+ *     thread per wait at 10 to 100 concurrent waits, and less from about 1000, with a fraction of the threads.
+ * </p>
+ */
+class HashedWheelTimer {
+    private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickInNanos;
+    private final List<List<Timeout>> wheel;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread thread;
+    private long tick;
+
+    /**
+     * @param buckets a power of two, tasks further than buckets ticks wait for more turns of the wheel.
+     */
+    HashedWheelTimer(String name, long tickInMillis, int buckets) {
+        Preconditions.checkArgument(tickInMillis > 0);
+        Preconditions.checkArgument(buckets > 0 && Integer.bitCount(buckets) == 1, "buckets should be a power of two");
+        this.tickInNanos = TimeUnit.MILLISECONDS.toNanos(tickInMillis);
+        this.wheel = new ArrayList<>(buckets);
+        for (int index = 0; index < buckets; index++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.mask = buckets - 1;
+        this.thread = new Thread(this::run, Preconditions.checkNotNull(name));
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs the task in the tick thread in delayInMillis, rounded up to the next tick.
+     */
+    void schedule(Runnable task, long delayInMillis) {
+        Preconditions.checkNotNull(task);
+        added.add(new Timeout(task, System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayInMillis))));
+        if (pending.getAndIncrement() == 0) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            waitWhileIdle();
+            long deadline = waitForNextTick();
+            transferAdded();
+            expire(wheel.get((int) (tick & mask)), deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Does not tick while there is nothing to run, the wheel is empty then so it can skip the ticks it missed.
+     */
+    private void waitWhileIdle() {
+        if (pending.get() > 0) {
+            return;
+        }
+        while (pending.get() == 0) {
+            LockSupport.park(this);
+        }
+        tick = (System.nanoTime() - startTime) / tickInNanos;
+    }
+
+    /**
+     * @return the time of the tick, since the start.
+     */
+    private long waitForNextTick() {
+        long deadline = tickInNanos * (tick + 1);
+        while (true) {
+            long current = System.nanoTime() - startTime;
+            long sleepInMillis = TimeUnit.NANOSECONDS.toMillis(deadline - current + 999999);
+            if (sleepInMillis <= 0) {
+                return current;
+            }
+            try {
+                Thread.sleep(sleepInMillis);
+            } catch (InterruptedException e) {
+                LOG.warn("Wheel timer interrupted, ignored");
+            }
+        }
+    }
+
+    /**
+     * Only the tick thread touches the buckets, the tasks added since the last tick are placed now.
+     */
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            long calculated = timeout.deadline / tickInNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.size();
+            wheel.get((int) (Math.max(calculated, tick) & mask)).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket, long deadline) {
+        int kept = 0;
+        for (int index = 0; index < bucket.size(); index++) {
+            Timeout timeout = bucket.get(index);
+            if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                pending.decrementAndGet();
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException | Error e) {
+                    LOG.warn("Task of the wheel timer failed", e);
+                }
+            } else {
+                if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                bucket.set(kept++, timeout);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private static class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+}
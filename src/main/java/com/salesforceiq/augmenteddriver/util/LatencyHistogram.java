@@ -0,0 +1,95 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of latencies, cheap enough to record every command.
+ *
+ * <p>
+ *     Values are kept in microseconds in log-linear buckets (8 buckets per power of two), so percentiles are
+ *     accurate to about 12%, which is plenty for telling a 30ms command from a 300ms one.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalInMicros = new AtomicLong();
+    private final AtomicLong maxInMicros = new AtomicLong();
+
+    public void record(long duration, TimeUnit unit) {
+        long micros = Math.max(0, unit.toMicros(duration));
+        counts.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        totalInMicros.addAndGet(micros);
+        long max;
+        while (micros > (max = maxInMicros.get()) && !maxInMicros.compareAndSet(max, micros)) {
+            // retry.
+        }
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long totalInMillis() {
+        return TimeUnit.MICROSECONDS.toMillis(totalInMicros.get());
+    }
+
+    public long maxInMillis() {
+        return TimeUnit.MICROSECONDS.toMillis(maxInMicros.get());
+    }
+
+    /**
+     * @param percentile between 0 and 100.
+     * @return the upper bound in milliseconds of the bucket the percentile falls in, 0 if nothing was recorded.
+     */
+    public double percentileInMillis(double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100);
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(bucket), maxInMicros.get()) / 1000.0;
+            }
+        }
+        return maxInMicros.get() / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%s p50=%.1fms p99=%.1fms max=%sms total=%sms",
+                count(), percentileInMillis(50), percentileInMillis(99), maxInMillis(), totalInMillis());
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,54 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.function.Function;
+
+/**
+ * The element found by a wait on several Bys, and which of the Bys found it.
+ */
+public class LocatorMatch<T extends WebElement> {
+
+    private final By by;
+    private final int index;
+    private final T element;
+
+    public LocatorMatch(By by, int index, T element) {
+        this.by = Preconditions.checkNotNull(by);
+        this.index = index;
+        this.element = Preconditions.checkNotNull(element);
+    }
+
+    /**
+     * @return the By that found the element.
+     */
+    public By getBy() {
+        return by;
+    }
+
+    /**
+     * @return position of the By in the ones waited for.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public T getElement() {
+        return element;
+    }
+
+    public boolean is(By by) {
+        return this.by.equals(by);
+    }
+
+    public <E extends WebElement> LocatorMatch<E> map(Function<T, E> mapper) {
+        return new LocatorMatch<>(by, index, mapper.apply(element));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (#%s)", by, index);
+    }
+}
@@ -1,65 +1,112 @@
 package com.salesforceiq.augmenteddriver.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.salesforceiq.augmenteddriver.util.bys.AndroidUiAutomatorBys;
+import com.salesforceiq.augmenteddriver.util.bys.IOSPredicateBys;
 import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.ios.IOSDriver;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class MobileUtil {
+    private static final Logger LOG = LoggerFactory.getLogger(MobileUtil.class);
 
     private static final int VERTICAL_OFFSET = 10;
     private static final int BIG_NUMBER = 9999999;
     private static final int DEFAULT_DURATION = 1000;
     private static final int DEFAULT_TAP_DURATION = 500;
+    private static final int MAX_SWIPES = 5;
 
-    public static WebElement swipeUpWaitVisible(AppiumDriver driver,
+    /**
+     * After a swipe, how long to wait for the screen to stop changing (the scroll to end).
+     */
+    private static final long SETTLE_TIMEOUT_IN_MILLIS = 3000;
+
+    public static WebElement swipeUpWaitVisible(AppiumDriver<?> driver,
                                                 AugmentedFunctions<?> augmentedFunctions,
                                                 By swipeElement,
                                                 By elementVisible) {
-        return swipeVerticalWaitVisible(driver, augmentedFunctions, swipeElement,
-                elementVisible, - BIG_NUMBER, 5, DEFAULT_DURATION);
+        return swipeWaitVisible(driver, augmentedFunctions, swipeElement, elementVisible, - BIG_NUMBER);
     }
 
-    public static WebElement tap(AppiumDriver driver, AugmentedFunctions<?> augmentedFunctions, By by, int waitTimeInSeconds) {
+    /**
+     * Scrolls the list until the element is visible, on the server, swiping up on the list as swipeUpWaitVisible if
+     * the server cannot.
+     *
+     * <p>
+     *     The server scrolls on Android with a UiScrollable of the list, selected by its resource id, for the
+     *     UiAutomator bys and the XPaths of {@link com.salesforceiq.augmenteddriver.util.bys.AndroidBys} that are
+     *     rewritten to one. It scrolls the list back to its beginning first, and then forward up to 30 swipes. Lists
+     *     without a resource id are swiped. On iOS it scrolls with scrollToElementWithPredicate on the list, for the
+     *     bys of {@link com.salesforceiq.augmenteddriver.util.bys.IOSPredicateBys} and the XPaths of
+     *     {@link com.salesforceiq.augmenteddriver.util.bys.IOSBys}. The swipes stop at the end of the list.
+     * </p>
+     */
+    public static WebElement scrollWaitVisible(AppiumDriver<?> driver,
+                                               AugmentedFunctions<?> augmentedFunctions,
+                                               By scrollElement,
+                                               By elementVisible) {
+        Preconditions.checkNotNull(driver);
+        Preconditions.checkNotNull(augmentedFunctions);
+        Preconditions.checkNotNull(scrollElement);
+        Preconditions.checkNotNull(elementVisible);
+        if (augmentedFunctions.isElementVisibleImmediate(elementVisible)) {
+            return augmentedFunctions.findElementVisible(elementVisible);
+        }
+        if (scrollOnServer(driver, augmentedFunctions, scrollElement, elementVisible)
+                && augmentedFunctions.isElementVisibleImmediate(elementVisible)) {
+            return augmentedFunctions.findElementVisible(elementVisible);
+        }
+        return swipeVerticalWaitVisible(driver, augmentedFunctions, scrollElement, elementVisible, - BIG_NUMBER, MAX_SWIPES, DEFAULT_DURATION);
+    }
+
+    public static WebElement tap(AppiumDriver<?> driver, AugmentedFunctions<?> augmentedFunctions, By by, int waitTimeInSeconds) {
         WebElement element = augmentedFunctions.findElementPresentAfter(by, waitTimeInSeconds);
         tap(driver, element, DEFAULT_TAP_DURATION);
         return  element;
     }
 
-    public static WebElement tap(AppiumDriver driver, AugmentedFunctions<?> augmentedFunctions,
+    public static WebElement tap(AppiumDriver<?> driver, AugmentedFunctions<?> augmentedFunctions,
                                  By by, int offsetX, int offsetY, int waitTimeInSeconds) {
         WebElement element = augmentedFunctions.findElementPresentAfter(by, waitTimeInSeconds);
-        driver.tap(1, element.getLocation().getX() + offsetX, element.getLocation().getY() + offsetY, DEFAULT_TAP_DURATION);
+        Gesture.on(driver).tap(element, offsetX, offsetY, DEFAULT_TAP_DURATION).perform();
         return element;
     }
 
-    public static void tap(AppiumDriver driver, WebElement element, int pressInMilliSeconds) {
-        driver.tap(1, element.getLocation().getX(), element.getLocation().getY(), pressInMilliSeconds);
+    public static void tap(AppiumDriver<?> driver, WebElement element, int pressInMilliSeconds) {
+        Gesture.on(driver).tap(element, 0, 0, pressInMilliSeconds).perform();
     }
 
-    public static WebElement swipeDownWaitVisible(AppiumDriver driver,
+    public static WebElement swipeDownWaitVisible(AppiumDriver<?> driver,
                                                 AugmentedFunctions<?> augmentedFunctions,
                                                 By swipeElement,
                                                 By elementVisible) {
-        return swipeVerticalWaitVisible(driver, augmentedFunctions, swipeElement,
-                elementVisible, BIG_NUMBER, 5, DEFAULT_DURATION);
+        return swipeWaitVisible(driver, augmentedFunctions, swipeElement, elementVisible, BIG_NUMBER);
     }
 
-    public static void swipeUp(AppiumDriver driver,
+    public static void swipeUp(AppiumDriver<?> driver,
                                AugmentedFunctions<?> augmentedFunctions,
                                By swipeBy) {
         swipeVertical(driver, augmentedFunctions, swipeBy, -BIG_NUMBER, DEFAULT_DURATION);
     }
 
-    public static void swipeDown(AppiumDriver driver,
+    public static void swipeDown(AppiumDriver<?> driver,
                                AugmentedFunctions<?> augmentedFunctions,
                                By swipeBy) {
         swipeVertical(driver, augmentedFunctions, swipeBy, BIG_NUMBER, DEFAULT_DURATION);
     }
 
 
-    public static void swipeVertical(AppiumDriver driver,
+    public static void swipeVertical(AppiumDriver<?> driver,
                                      AugmentedFunctions<?> augmentedFunctions,
                                      By swipeBy,
                                      int offset,
@@ -68,13 +115,14 @@ public class MobileUtil {
         Preconditions.checkNotNull(augmentedFunctions);
         Preconditions.checkNotNull(swipeBy);
         WebElement elementPresent = augmentedFunctions.findElementPresent(swipeBy);
-        int x = elementPresent.getLocation().getX() + elementPresent.getSize().getWidth() / 2;
-        int y = elementPresent.getLocation().getY() + elementPresent.getSize().getHeight() /  2;
+        Point center = center(elementPresent);
+        int x = center.getX();
+        int y = center.getY();
         int swipe = getVerticalOffset(driver, y, offset);
-        driver.swipe(x, y, x, swipe, duration);
+        Gesture.on(driver).swipe(x, y, x, swipe, duration).perform();
     }
 
-    public static WebElement swipeVerticalWaitVisible(AppiumDriver driver,
+    public static WebElement swipeVerticalWaitVisible(AppiumDriver<?> driver,
                                     AugmentedFunctions<?> augmentedFunctions,
                                     By swipeElement,
                                     By elementVisible,
@@ -85,34 +133,91 @@ public class MobileUtil {
         Preconditions.checkNotNull(augmentedFunctions);
         Preconditions.checkNotNull(swipeElement);
         WebElement elementPresent = augmentedFunctions.findElementPresent(swipeElement);
-        int x = elementPresent.getLocation().getX() + elementPresent.getSize().getWidth() / 2;
-        int y = elementPresent.getLocation().getY() + elementPresent.getSize().getHeight() /  2;
+        Point center = center(elementPresent);
+        int x = center.getX();
+        int y = center.getY();
 
         int swipe = getVerticalOffset(driver, y, offset);
 
+        ScreenFingerprint before = ScreenFingerprint.take(driver);
         for(int iteration = 0; iteration < quantity; iteration++) {
-            driver.swipe(x, y, x, swipe, duration);
-            if (augmentedFunctions.isElementVisibleAfter(elementVisible, 3)) {
+            Gesture.on(driver).swipe(x, y, x, swipe, duration).perform();
+            // The element usually shows up before the scroll ends, there is no need to wait for it then.
+            if (augmentedFunctions.isElementVisibleImmediate(elementVisible)) {
                 return augmentedFunctions.findElementVisible(elementVisible);
             }
+            ScreenFingerprint after = ScreenFingerprint.waitUntilStable(driver, SETTLE_TIMEOUT_IN_MILLIS);
+            if (after.equals(before)) {
+                throw new AssertionError(String.format("Swiped %s times with an offset of %s, the screen did not change anymore but element %s not found",
+                        iteration + 1, offset, elementVisible));
+            }
+            if (augmentedFunctions.isElementVisibleImmediate(elementVisible)) {
+                return augmentedFunctions.findElementVisible(elementVisible);
+            }
+            before = after;
         }
         throw new AssertionError(String.format("Swiped %s with an offest of %s times but element %s not found",
                         quantity, offset, elementVisible));
     }
 
-    public static void swipeFullRightAfter(AppiumDriver driver, AugmentedFunctions<?> augmentedFunctions, WebElement element,
+    /**
+     * Swipes in the direction of the offset until the element is visible, not at all if it already is.
+     */
+    private static WebElement swipeWaitVisible(AppiumDriver<?> driver,
+                                               AugmentedFunctions<?> augmentedFunctions,
+                                               By swipeElement,
+                                               By elementVisible,
+                                               int offset) {
+        Preconditions.checkNotNull(augmentedFunctions);
+        Preconditions.checkNotNull(elementVisible);
+        if (augmentedFunctions.isElementVisibleImmediate(elementVisible)) {
+            return augmentedFunctions.findElementVisible(elementVisible);
+        }
+        return swipeVerticalWaitVisible(driver, augmentedFunctions, swipeElement, elementVisible, offset, MAX_SWIPES, DEFAULT_DURATION);
+    }
+
+    /**
+     * @return if the server scrolled to the element, false if it was not found or the server cannot scroll to it.
+     */
+    private static boolean scrollOnServer(AppiumDriver<?> driver,
+                                          AugmentedFunctions<?> augmentedFunctions,
+                                          By scrollElement,
+                                          By elementVisible) {
+        try {
+            if (driver instanceof AndroidDriver && AndroidUiAutomatorBys.isUiSelector(elementVisible)) {
+                // Without a resource id the UiScrollable could pick another list, the swipes are scoped to this one.
+                String resourceId = augmentedFunctions.findElementPresent(scrollElement).getAttribute("resourceId");
+                if (Strings.isNullOrEmpty(resourceId)) {
+                    return false;
+                }
+                driver.findElement(AndroidUiAutomatorBys.scrollIntoView(resourceId, elementVisible));
+                return true;
+            }
+            if (driver instanceof IOSDriver && IOSPredicateBys.isPredicate(elementVisible)) {
+                augmentedFunctions.findElementPresent(scrollElement).findElement(IOSPredicateBys.scrollToElement(elementVisible));
+                return true;
+            }
+        } catch (InvalidSelectorException | UnsupportedCommandException e) {
+            LOG.warn(String.format("Server cannot scroll to %s, swiping", elementVisible), e);
+        } catch (NoSuchElementException e) {
+            LOG.debug(String.format("Server did not scroll to %s, swiping", elementVisible));
+        }
+        return false;
+    }
+
+    public static void swipeFullRightAfter(AppiumDriver<?> driver, AugmentedFunctions<?> augmentedFunctions, WebElement element,
                                            int waitTimeInSeconds) {
         Preconditions.checkNotNull(driver);
         Preconditions.checkNotNull(augmentedFunctions);
         Preconditions.checkNotNull(element);
-        Dimension size = driver.manage().window().getSize();
+        Dimension size = ScreenGeometry.windowSize(driver);
         int from = size.getWidth() * 85 / 100;
         int to = size.getWidth() * 15 / 100;
-        int y = element.getLocation().getY() + element.getSize().getHeight() / 2;
-        driver.swipe(from, y, to, y, DEFAULT_DURATION);
+        int y = center(element).getY();
+        Gesture.on(driver).swipe(from, y, to, y, DEFAULT_DURATION).perform();
     }
 
-    public static void swipeFullRightAfter(AppiumDriver driver, AugmentedFunctions<?> augmentedFunctions, By by, int waitTimeInSeconds) {
+    public static void swipeFullRightAfter(AppiumDriver<?> driver, AugmentedFunctions<?> augmentedFunctions, By by, int waitTimeInSeconds) {
         Preconditions.checkNotNull(by);
         Preconditions.checkNotNull(driver);
         Preconditions.checkNotNull(augmentedFunctions);
@@ -120,19 +225,19 @@ public class MobileUtil {
         swipeFullRightAfter(driver, augmentedFunctions, element, waitTimeInSeconds);
     }
 
-    public static void swipeFullLeftAfter(AppiumDriver driver, AugmentedFunctions<?> augmentedFunctions, WebElement element,
+    public static void swipeFullLeftAfter(AppiumDriver<?> driver, AugmentedFunctions<?> augmentedFunctions, WebElement element,
                                            int waitTimeInSeconds) {
         Preconditions.checkNotNull(driver);
         Preconditions.checkNotNull(augmentedFunctions);
         Preconditions.checkNotNull(element);
-        Dimension size = driver.manage().window().getSize();
+        Dimension size = ScreenGeometry.windowSize(driver);
         int from = size.getWidth() * 85 / 100;
         int to = size.getWidth() * 15 / 100;
-        int y = element.getLocation().getY() + element.getSize().getHeight() / 2;
-        driver.swipe(from, y, to, y, DEFAULT_DURATION);
+        int y = center(element).getY();
+        Gesture.on(driver).swipe(from, y, to, y, DEFAULT_DURATION).perform();
     }
 
-    public static void swipeFullLeftAfter(AppiumDriver driver, AugmentedFunctions<?> augmentedFunctions, By by, int waitTimeInSeconds) {
+    public static void swipeFullLeftAfter(AppiumDriver<?> driver, AugmentedFunctions<?> augmentedFunctions, By by, int waitTimeInSeconds) {
         Preconditions.checkNotNull(by);
         Preconditions.checkNotNull(driver);
         Preconditions.checkNotNull(augmentedFunctions);
@@ -140,11 +245,21 @@ public class MobileUtil {
         swipeFullRightAfter(driver, augmentedFunctions, element, waitTimeInSeconds);
     }
 
-    private static int getVerticalOffset(AppiumDriver driver, int y, int offset) {
+    /**
+     * The location and the size are one command each, fetched once.
+     */
+    private static Point center(WebElement element) {
+        Point location = element.getLocation();
+        Dimension size = element.getSize();
+        return new Point(location.getX() + size.getWidth() / 2, location.getY() + size.getHeight() / 2);
+    }
+
+    private static int getVerticalOffset(AppiumDriver<?> driver, int y, int offset) {
+        int height = ScreenGeometry.windowSize(driver).getHeight();
         if (y + offset < VERTICAL_OFFSET) {
             return VERTICAL_OFFSET;
-        } else if (y + offset > driver.manage().window().getSize().getHeight() - VERTICAL_OFFSET) {
-            return driver.manage().window().getSize().getHeight() - VERTICAL_OFFSET;
+        } else if (y + offset > height - VERTICAL_OFFSET) {
+            return height - VERTICAL_OFFSET;
         } else {
             return y + offset;
         }
@@ -0,0 +1,175 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * A hash of what an app shows, to know cheaply if the screen changed.
+ *
+ * <p>
+ *     It is the hash of the page source, without the attributes that change while the screen stays the same
+ *     (focus) and the whitespace between elements. The same screen always has the same fingerprint, so swipes can
+ *     tell they reached the end of a list and waits can skip the searches while nothing changed.
+ * </p>
+ */
+public final class ScreenFingerprint {
+
+    private static final Pattern IGNORED_ATTRIBUTES = Pattern.compile("\\s(focused)=\"[^\"]*\"");
+    private static final Pattern WHITESPACE_BETWEEN_ELEMENTS = Pattern.compile(">\\s+<");
+
+    private static final long STABLE_POLL_IN_MILLIS = 200;
+
+    private static final String WAITED_FOR = "screen stable";
+
+    /**
+     * A poll of this many searches costs more than the page source of the fingerprint.
+     */
+    static final int MIN_SEARCHES_TO_SKIP = 3;
+
+    private final HashCode hash;
+    private final int length;
+
+    private ScreenFingerprint(HashCode hash, int length) {
+        this.hash = hash;
+        this.length = length;
+    }
+
+    /**
+     * Fetches the page source, one command.
+     */
+    public static ScreenFingerprint take(WebDriver driver) {
+        Preconditions.checkNotNull(driver);
+        return of(driver.getPageSource());
+    }
+
+    public static ScreenFingerprint of(String pageSource) {
+        Preconditions.checkNotNull(pageSource);
+        String normalized = WHITESPACE_BETWEEN_ELEMENTS.matcher(IGNORED_ATTRIBUTES.matcher(pageSource).replaceAll(""))
+                .replaceAll("><")
+                .trim();
+        return new ScreenFingerprint(Hashing.murmur3_128().hashString(normalized, StandardCharsets.UTF_8), normalized.length());
+    }
+
+    /**
+     * Waits until two fingerprints in a row are the same (a scroll or transition ended), or timeoutInMillis.
+     *
+     * <p>
+     *     The wait is part of the {@link TestBudget} of the test and recorded in the {@link WaitTelemetry}.
+     * </p>
+     *
+     * @return the last fingerprint taken.
+     * @throws AssertionError if the budget of the test is over before the screen is stable.
+     */
+    public static ScreenFingerprint waitUntilStable(WebDriver driver, long timeoutInMillis) {
+        Preconditions.checkNotNull(driver);
+        long effectiveTimeoutInMillis = TestBudget.timeoutInMillis(timeoutInMillis);
+        long start = System.nanoTime();
+        ScreenFingerprint last = take(driver);
+        boolean stable = false;
+        try {
+            while (!stable && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < effectiveTimeoutInMillis) {
+                Util.pause(STABLE_POLL_IN_MILLIS);
+                ScreenFingerprint current = take(driver);
+                stable = current.equals(last);
+                last = current;
+            }
+        } finally {
+            long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            TestBudget.record(WAITED_FOR, elapsedInMillis, stable);
+            WaitTelemetry.RUN.record(WAITED_FOR, elapsedInMillis, timeoutInMillis, stable);
+        }
+        if (!stable && effectiveTimeoutInMillis < timeoutInMillis) {
+            throw TestBudget.current().exceeded();
+        }
+        return last;
+    }
+
+    /**
+     * Skips the searches of the condition while the screen shows the same as in the last poll that was not done.
+     *
+     * <p>
+     *     The first poll runs without a fingerprint, most waits are done there. The fingerprints start with the
+     *     second poll, so the first one that can be skipped is the third.
+     * </p>
+     * <p>
+     *     Only on Appium, and only for conditions that do at least MIN_SEARCHES_TO_SKIP searches per poll, fewer
+     *     searches are cheaper than the page source. Otherwise the condition is returned as is.
+     * </p>
+     */
+    public static <V> Function<SearchContext, WaitResult<V>> skipWhileUnchanged(SearchContext parent, int searches,
+                                                                               Function<SearchContext, WaitResult<V>> condition) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(condition);
+        WebDriver driver = parent instanceof WrapsDriver ? ((WrapsDriver) parent).getWrappedDriver()
+                : parent instanceof WebDriver ? (WebDriver) parent : null;
+        if (!(driver instanceof AppiumDriver) || searches < MIN_SEARCHES_TO_SKIP) {
+            return condition;
+        }
+        return skipWhileUnchanged(() -> take(driver), condition);
+    }
+
+    static <V> Function<SearchContext, WaitResult<V>> skipWhileUnchanged(Supplier<ScreenFingerprint> fingerprints,
+                                                                       Function<SearchContext, WaitResult<V>> condition) {
+        return new Function<SearchContext, WaitResult<V>>() {
+            private boolean polled;
+            private ScreenFingerprint lastScreen;
+            private WaitResult<V> lastResult;
+
+            @Override
+            public WaitResult<V> apply(SearchContext context) {
+                if (!polled) {
+                    polled = true;
+                    return condition.apply(context);
+                }
+                ScreenFingerprint screen = fingerprints.get();
+                if (lastResult != null && screen.equals(lastScreen)) {
+                    return lastResult;
+                }
+                lastResult = null;
+                WaitResult<V> result = condition.apply(context);
+                if (!result.isDone()) {
+                    lastScreen = screen;
+                    lastResult = result;
+                }
+                return result;
+            }
+
+            @Override
+            public String toString() {
+                return condition.toString();
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ScreenFingerprint)) {
+            return false;
+        }
+        return length == ((ScreenFingerprint) other).length && hash.equals(((ScreenFingerprint) other).hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash.asInt();
+    }
+
+    @Override
+    public String toString() {
+        return hash.toString();
+    }
+}
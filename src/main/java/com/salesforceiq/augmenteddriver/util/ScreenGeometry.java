@@ -0,0 +1,54 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+
+import java.util.Map;
+
+/**
+ * The size of the screen of each session, fetched once.
+ *
+ * <p>
+ *     The size only changes when the device rotates, the augmented mobile drivers call {@link #invalidate(WebDriver)}
+ *     when they rotate and when they quit. A test that rotates the device another way (an app that forces an
+ *     orientation) has to call it too.
+ * </p>
+ */
+public final class ScreenGeometry {
+
+    private static final Map<SessionId, Dimension> WINDOW_SIZES = Maps.newConcurrentMap();
+
+    private ScreenGeometry() {
+    }
+
+    /**
+     * @return the size of the window, fetched only the first time for the session.
+     */
+    public static Dimension windowSize(WebDriver driver) {
+        Preconditions.checkNotNull(driver);
+        SessionId session = driver instanceof RemoteWebDriver ? ((RemoteWebDriver) driver).getSessionId() : null;
+        if (session == null) {
+            return driver.manage().window().getSize();
+        }
+        Dimension size = WINDOW_SIZES.get(session);
+        if (size == null) {
+            size = driver.manage().window().getSize();
+            WINDOW_SIZES.put(session, size);
+        }
+        return size;
+    }
+
+    /**
+     * Forgets the size of the session, the next {@link #windowSize(WebDriver)} fetches it again.
+     */
+    public static void invalidate(WebDriver driver) {
+        Preconditions.checkNotNull(driver);
+        if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() != null) {
+            WINDOW_SIZES.remove(((RemoteWebDriver) driver).getSessionId());
+        }
+    }
+}
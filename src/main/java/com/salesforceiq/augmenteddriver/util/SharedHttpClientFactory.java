@@ -0,0 +1,156 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.internal.ApacheHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One HTTP transport shared by all the drivers of the JVM.
+ *
+ * <p>
+ *     All the drivers talk to the same few hubs, so they share one pool of keep-alive connections, with a limit
+ *     per hub (route), configurable timeouts, and optionally gzip compressed request bodies.
+ * </p>
+ * <p>
+ *     The pool is created once per JVM, by the first instance, with its properties: the test classes with other
+ *     shared modules get another instance (see {@link com.salesforceiq.augmenteddriver.runners.AugmentedJUnitRunner})
+ *     but the same pool.
+ * </p>
+ * <p>
+ *     IMPORTANT: Appium does not let us pass the transport to the drivers, so the pool is also installed, once, as
+ *     the default factory of {@link HttpCommandExecutor}, which is what every Appium driver uses.
+ * </p>
+ */
+@Singleton
+public class SharedHttpClientFactory implements HttpClient.Factory {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedHttpClientFactory.class);
+
+    private static final int COMPRESSION_THRESHOLD_IN_BYTES = 1024;
+
+    private static SharedHttpClientFactory shared;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    @Inject
+    public SharedHttpClientFactory(@Named(PropertiesModule.HTTP_MAX_CONNECTIONS) String maxConnections,
+                                   @Named(PropertiesModule.HTTP_MAX_CONNECTIONS_PER_ROUTE) String maxConnectionsPerRoute,
+                                   @Named(PropertiesModule.HTTP_CONNECT_TIMEOUT_IN_SECONDS) String connectTimeoutInSeconds,
+                                   @Named(PropertiesModule.HTTP_READ_TIMEOUT_IN_SECONDS) String readTimeoutInSeconds,
+                                   @Named(PropertiesModule.HTTP_KEEP_ALIVE_IN_SECONDS) String keepAliveInSeconds,
+                                   @Named(PropertiesModule.HTTP_REQUEST_COMPRESSION) String requestCompression) {
+        SharedHttpClientFactory pool = shared(maxConnections, maxConnectionsPerRoute, connectTimeoutInSeconds,
+                readTimeoutInSeconds, keepAliveInSeconds, requestCompression);
+        this.connectionManager = pool.connectionManager;
+        this.httpClient = pool.httpClient;
+    }
+
+    private SharedHttpClientFactory(PoolingHttpClientConnectionManager connectionManager, CloseableHttpClient httpClient) {
+        this.connectionManager = connectionManager;
+        this.httpClient = httpClient;
+    }
+
+    private static synchronized SharedHttpClientFactory shared(String maxConnections, String maxConnectionsPerRoute,
+                                                               String connectTimeoutInSeconds, String readTimeoutInSeconds,
+                                                               String keepAliveInSeconds, String requestCompression) {
+        if (shared != null) {
+            return shared;
+        }
+        int readTimeout = (int) TimeUnit.SECONDS.toMillis(Integer.valueOf(Preconditions.checkNotNull(readTimeoutInSeconds)));
+        int connectTimeout = (int) TimeUnit.SECONDS.toMillis(Integer.valueOf(Preconditions.checkNotNull(connectTimeoutInSeconds)));
+        long keepAlive = TimeUnit.SECONDS.toMillis(Integer.valueOf(Preconditions.checkNotNull(keepAliveInSeconds)));
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(keepAlive, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(Integer.valueOf(Preconditions.checkNotNull(maxConnections)));
+        connectionManager.setDefaultMaxPerRoute(Integer.valueOf(Preconditions.checkNotNull(maxConnectionsPerRoute)));
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoReuseAddress(true)
+                        .setSoTimeout(readTimeout)
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeout)
+                        .setConnectionRequestTimeout(connectTimeout)
+                        .setSocketTimeout(readTimeout)
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    long fromServer = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return fromServer > 0 ? Math.min(fromServer, keepAlive) : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS);
+
+        if (Boolean.valueOf(Preconditions.checkNotNull(requestCompression))) {
+            builder.addInterceptorLast((HttpRequestInterceptor) (request, context) -> {
+                if (request instanceof HttpEntityEnclosingRequest) {
+                    HttpEntityEnclosingRequest enclosing = (HttpEntityEnclosingRequest) request;
+                    HttpEntity entity = enclosing.getEntity();
+                    if (entity != null && entity.getContentLength() > COMPRESSION_THRESHOLD_IN_BYTES) {
+                        enclosing.setEntity(new GzipCompressingEntity(entity));
+                    }
+                }
+            });
+        }
+
+        shared = new SharedHttpClientFactory(connectionManager, builder.build());
+        installAsDefault(shared);
+        return shared;
+    }
+
+    @Override
+    public HttpClient createClient(URL url) {
+        Preconditions.checkNotNull(url);
+        return new ApacheHttpClient(httpClient, url);
+    }
+
+    /**
+     * @return the stats of the whole pool (leased, pending, available and max connections).
+     */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * @return the stats of the connections to one hub.
+     */
+    public PoolStats getStats(URL url) {
+        Preconditions.checkNotNull(url);
+        return connectionManager.getStats(new HttpRoute(new HttpHost(url.getHost(), url.getPort(), url.getProtocol())));
+    }
+
+    private static void installAsDefault(SharedHttpClientFactory factory) {
+        try {
+            Field defaultClientFactory = HttpCommandExecutor.class.getDeclaredField("defaultClientFactory");
+            defaultClientFactory.setAccessible(true);
+            defaultClientFactory.set(null, factory);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            LOG.warn("Could not install the shared HTTP transport as default, Appium drivers will use their own", e);
+        }
+    }
+}
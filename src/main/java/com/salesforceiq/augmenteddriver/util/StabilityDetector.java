@@ -0,0 +1,149 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.salesforceiq.augmenteddriver.web.AugmentedWebDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits until an element stops moving and resizing.
+ *
+ * <p>
+ *     The element is stable once its rect (position and size) changed at most tolerance pixels during
+ *     stableSamples consecutive samples. On web the samples are taken in the browser, one per animation frame, with
+ *     one async script.
+ * </p>
+ *
+ * <p>
+ *     Everywhere else the rect is read once per poll, with findElements, getLocation and getSize (there is no
+ *     getRect), and the samples are one poll apart: an element that does not move costs stableSamples + 1 polls,
+ *     3 commands each.
+ * </p>
+ */
+public class StabilityDetector {
+
+    public static final int DEFAULT_TOLERANCE_IN_PIXELS = 2;
+    public static final int DEFAULT_STABLE_SAMPLES = 3;
+
+    private static final long SCRIPT_TIMEOUT_MARGIN_IN_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private static final String DETACHED = "detached";
+
+    private static final String SCRIPT =
+            "var element = arguments[0], tolerance = arguments[1], required = arguments[2], timeout = arguments[3],\n" +
+            "    callback = arguments[arguments.length - 1], start = Date.now(), previous = null, stable = 0;\n" +
+            "function close(one, other) { return Math.abs(one - other) <= tolerance; }\n" +
+            "function next() {\n" +
+            "  // Hidden documents do not get animation frames.\n" +
+            "  if (document.hidden || !window.requestAnimationFrame) { setTimeout(sample, 16); } else { window.requestAnimationFrame(sample); }\n" +
+            "}\n" +
+            "function sample() {\n" +
+            "  if (!document.documentElement.contains(element)) { callback('" + DETACHED + "'); return; }\n" +
+            "  var rect = element.getBoundingClientRect();\n" +
+            "  if (previous && close(rect.left, previous.left) && close(rect.top, previous.top)\n" +
+            "      && close(rect.width, previous.width) && close(rect.height, previous.height)) {\n" +
+            "    if (++stable >= required) { callback(true); return; }\n" +
+            "  } else {\n" +
+            "    stable = 0;\n" +
+            "  }\n" +
+            "  previous = rect;\n" +
+            "  if (Date.now() - start >= timeout) { callback(false); return; }\n" +
+            "  next();\n" +
+            "}\n" +
+            "sample();\n";
+
+    /**
+     * Waits up to timeoutInSeconds until the first element identified by by is stable.
+     *
+     * @param tolerance how many pixels the position or size can change and still be stable.
+     * @param stableSamples how many consecutive samples it has to be stable, frames on web and polls elsewhere.
+     */
+    public static WebElement findElementStableAfter(SearchContext parent, By by, int tolerance, int stableSamples, int timeoutInSeconds) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(by);
+        Preconditions.checkArgument(tolerance >= 0);
+        Preconditions.checkArgument(stableSamples > 0);
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(TestBudget.timeoutInMillis(TimeUnit.SECONDS.toMillis(timeoutInSeconds)));
+        Sampler sampler = new Sampler(tolerance, stableSamples);
+        try {
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds, by);
+            return wait.until((SearchContext element) -> {
+                List<WebElement> children = element.findElements(by);
+                if (children.isEmpty()) {
+                    return WaitResult.notYet("No elements found for %s", by);
+                }
+                WebElement current = children.get(0);
+                WebDriver driver = current instanceof WrapsDriver ? ((WrapsDriver) current).getWrappedDriver() : null;
+                if (driver instanceof AugmentedWebDriver) {
+                    return inBrowser((AugmentedWebDriver) driver, current, by, tolerance, stableSamples, deadline);
+                }
+                return sampler.sample(current) ? WaitResult.done(current) : WaitResult.notYet("Element %s has not stop moving yet", by);
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("Element %s did not stop moving after %s seconds", by, timeoutInSeconds), e);
+        }
+    }
+
+    private static WaitResult<WebElement> inBrowser(AugmentedWebDriver driver, WebElement element, By by,
+                                                    int tolerance, int stableSamples, long deadline) {
+        long remainingInMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        driver.ensureScriptTimeout(remainingInMillis + SCRIPT_TIMEOUT_MARGIN_IN_MILLIS);
+        Object result = driver.executeAsyncScript(SCRIPT, element, tolerance, stableSamples, remainingInMillis);
+        if (Boolean.TRUE.equals(result)) {
+            return WaitResult.done(element);
+        }
+        return DETACHED.equals(result)
+                ? WaitResult.notYet("Element %s was removed while moving", by)
+                : WaitResult.notYet("Element %s has not stop moving yet", by);
+    }
+
+    /**
+     * Samples taken from here, one per poll, the rect of the same element.
+     */
+    private static class Sampler {
+        private final int tolerance;
+        private final int required;
+        private WebElement element;
+        private Point location;
+        private Dimension size;
+        private int stable;
+
+        private Sampler(int tolerance, int required) {
+            this.tolerance = tolerance;
+            this.required = required;
+        }
+
+        /**
+         * @return whether the rect of the element was close to the one of the previous sample the last required
+         *         samples.
+         */
+        private boolean sample(WebElement current) {
+            Point currentLocation = current.getLocation();
+            Dimension currentSize = current.getSize();
+            boolean close = current.equals(element)
+                    && close(currentLocation.getX(), location.getX())
+                    && close(currentLocation.getY(), location.getY())
+                    && close(currentSize.getWidth(), size.getWidth())
+                    && close(currentSize.getHeight(), size.getHeight());
+            stable = close ? stable + 1 : 0;
+            element = current;
+            location = currentLocation;
+            size = currentSize;
+            return stable >= required;
+        }
+
+        private boolean close(int one, int other) {
+            return Math.abs(one - other) <= tolerance;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Maximum time a test can spend, shared by all its waits.
+ *
+ * <p>
+ *     While a budget is running every wait lasts at most min(its own timeout, what is left of the budget), and when
+ *     the budget is over the test fails at the next wait with a report of where the time went, instead of timing
+ *     out wait after wait. The budget belongs to the thread of the test (and the threads it creates).
+ * </p>
+ */
+public class TestBudget {
+
+    private static final int REPORTED_WAITS = 10;
+
+    private static final InheritableThreadLocal<TestBudget> CURRENT = new InheritableThreadLocal<>();
+
+    private final String testName;
+    private final long budgetInMillis;
+    private final long deadline;
+    private final List<Spent> waits = Lists.newArrayList();
+
+    private TestBudget(String testName, long budgetInMillis) {
+        this.testName = testName;
+        this.budgetInMillis = budgetInMillis;
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetInMillis);
+    }
+
+    /**
+     * Starts the budget of the test running in this thread.
+     */
+    public static TestBudget start(String testName, long budgetInSeconds) {
+        Preconditions.checkArgument(budgetInSeconds > 0);
+        TestBudget budget = new TestBudget(Preconditions.checkNotNull(testName), TimeUnit.SECONDS.toMillis(budgetInSeconds));
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    /**
+     * @return the budget of the test running in this thread, null if there is none.
+     */
+    public static TestBudget current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs the action as part of the test that owns the budget (none if null), for the threads of pools that did
+     * not inherit it, or inherited the budget of whatever test created them.
+     */
+    public static <V> V callWith(TestBudget budget, Supplier<V> action) {
+        TestBudget previous = CURRENT.get();
+        CURRENT.set(budget);
+        try {
+            return action.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @return how long a wait of timeoutInMillis can last, all of it if there is no budget.
+     * @throws AssertionError if the budget is over.
+     */
+    public static long timeoutInMillis(long timeoutInMillis) {
+        TestBudget budget = current();
+        if (budget == null) {
+            return timeoutInMillis;
+        }
+        long remaining = budget.remainingInMillis();
+        if (remaining <= 0) {
+            throw budget.exceeded();
+        }
+        return Math.min(timeoutInMillis, remaining);
+    }
+
+    /**
+     * Records a wait of the current test, if there is a budget.
+     */
+    public static void record(Object waitedFor, long elapsedInMillis, boolean succeeded) {
+        TestBudget budget = current();
+        if (budget != null) {
+            budget.add(String.valueOf(waitedFor), elapsedInMillis, succeeded);
+        }
+    }
+
+    public long remainingInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    /**
+     * @return the error to fail the test with, it is an AssertionError so no wait can mistake it for a timeout.
+     */
+    public AssertionError exceeded() {
+        return new AssertionError(String.format("%s ran out of its time budget of %s seconds.\n%s",
+                testName, TimeUnit.MILLISECONDS.toSeconds(budgetInMillis), report()));
+    }
+
+    /**
+     * @return the time spent waiting, grouped by what was waited for, the longest first.
+     */
+    public synchronized String report() {
+        Map<String, Spent> byTarget = Maps.newHashMap();
+        waits.forEach(spent -> byTarget.merge(spent.waitedFor, spent, Spent::plus));
+        long total = waits.stream().mapToLong(spent -> spent.elapsedInMillis).sum();
+        String lines = byTarget.values()
+                .stream()
+                .sorted((one, other) -> Long.compare(other.elapsedInMillis, one.elapsedInMillis))
+                .limit(REPORTED_WAITS)
+                .map(spent -> String.format("  %sms in %s waits (%s timed out) for %s",
+                        spent.elapsedInMillis, spent.count, spent.failed, spent.waitedFor))
+                .collect(Collectors.joining("\n"));
+        return String.format("%s waits took %sms of %sms:\n%s", waits.size(), total, budgetInMillis, lines);
+    }
+
+    private synchronized void add(String waitedFor, long elapsedInMillis, boolean succeeded) {
+        waits.add(new Spent(waitedFor, elapsedInMillis, 1, succeeded ? 0 : 1));
+    }
+
+    private static class Spent {
+        private final String waitedFor;
+        private final long elapsedInMillis;
+        private final int count;
+        private final int failed;
+
+        private Spent(String waitedFor, long elapsedInMillis, int count, int failed) {
+            this.waitedFor = waitedFor;
+            this.elapsedInMillis = elapsedInMillis;
+            this.count = count;
+            this.failed = failed;
+        }
+
+        private Spent plus(Spent other) {
+            return new Spent(waitedFor, elapsedInMillis + other.elapsedInMillis, count + other.count, failed + other.failed);
+        }
+    }
+}
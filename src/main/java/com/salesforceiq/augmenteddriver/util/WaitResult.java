@@ -0,0 +1,59 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * What one poll of a wait found, either the value or why it is not ready yet.
+ *
+ * <p>
+ *     The reason is only formatted if the wait times out, so a poll that is not ready yet costs one small object
+ *     instead of an exception with its stack trace.
+ * </p>
+ */
+public final class WaitResult<V> {
+
+    private static final WaitResult<?> NOT_YET = new WaitResult<>(null, "Condition not met yet", null);
+
+    private final V value;
+    private final String reason;
+    private final Object[] arguments;
+
+    private WaitResult(V value, String reason, Object[] arguments) {
+        this.value = value;
+        this.reason = reason;
+        this.arguments = arguments;
+    }
+
+    public static <V> WaitResult<V> done(V value) {
+        return new WaitResult<>(Preconditions.checkNotNull(value), null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> WaitResult<V> notYet() {
+        return (WaitResult<V>) NOT_YET;
+    }
+
+    /**
+     * @param reason format of the reason, as in String.format, only formatted if the wait fails.
+     */
+    public static <V> WaitResult<V> notYet(String reason, Object... arguments) {
+        return new WaitResult<>(null, Preconditions.checkNotNull(reason), arguments);
+    }
+
+    public boolean isDone() {
+        return reason == null;
+    }
+
+    public V getValue() {
+        Preconditions.checkState(isDone(), "Wait is not done");
+        return value;
+    }
+
+    /**
+     * @return why the wait is not done yet.
+     */
+    public String getReason() {
+        Preconditions.checkState(!isDone(), "Wait is done");
+        return arguments == null || arguments.length == 0 ? reason : String.format(reason, arguments);
+    }
+}
@@ -0,0 +1,56 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Schedules the polls of all the async waits of the JVM.
+ *
+ * <p>
+ *     One {@link HashedWheelTimer} thread keeps the time of every pending poll, whatever the number of waits, and
+ *     when a poll is due it is handed to a pool that only holds a thread while the poll talks to the driver. So the
+ *     threads do not grow with the waits, only with the polls that are running at the same time. The threads are
+ *     daemons, nothing has to shut it down.
+ * </p>
+ * <p>
+ *     The blocking waits do not use it, their thread is waiting anyway and sleeping in it costs less CPU than the
+ *     ticks and the hand-off (see {@link HashedWheelTimer}).
+ * </p>
+ */
+public class WaitScheduler {
+
+    /**
+     * Polls run up to one tick late, small compared with the time between polls.
+     */
+    private static final long TICK_IN_MILLIS = 10;
+
+    /**
+     * One turn of the wheel is about 5 seconds, longer delays take more turns.
+     */
+    private static final int BUCKETS = 512;
+
+    private static final HashedWheelTimer WHEEL = new HashedWheelTimer("wait-scheduler", TICK_IN_MILLIS, BUCKETS);
+
+    private static final ExecutorService POLLERS = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("wait-poll-%d")
+            .setDaemon(true)
+            .build());
+
+    private WaitScheduler() {
+    }
+
+    /**
+     * Runs the poll after delayInMillis (0 runs it as soon as a thread is free).
+     */
+    public static void schedule(Runnable poll, long delayInMillis) {
+        Preconditions.checkNotNull(poll);
+        if (delayInMillis <= 0) {
+            POLLERS.execute(poll);
+        } else {
+            WHEEL.schedule(() -> POLLERS.execute(poll), delayInMillis);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * How long the waits of the run took to be satisfied, per call site (the method of the page object or test that
+ * waited, and the locator).
+ *
+ * <p>
+ *     At the end of the run {@link #report()} shows p50/p95/p99 per call site, the waits that were satisfied close
+ *     to their timeout (about to flake) and tighter timeouts for the ones that are over-provisioned. The run is
+ *     saved as json with {@link #save(String)}, that also compares it with the previous saved run. The line of the
+ *     call site is only shown, it is not part of the call site, so editing the file does not split the waits of a
+ *     method between runs.
+ * </p>
+ */
+public class WaitTelemetry {
+    private static final Logger LOG = LoggerFactory.getLogger(WaitTelemetry.class);
+
+    public static final WaitTelemetry RUN = new WaitTelemetry();
+
+    /**
+     * Satisfied after this part of the timeout is near the timeout.
+     */
+    private static final double NEAR_TIMEOUT = 0.8;
+
+    /**
+     * Suggested timeouts are the p99 times this, only given with at least MIN_SAMPLES waits and no timeouts.
+     */
+    private static final double HEADROOM = 3;
+    private static final int MIN_SAMPLES = 5;
+
+    /**
+     * A p95 that changed more than this (and more than MIN_CHANGE_IN_MILLIS) from the previous run is reported.
+     */
+    private static final double CHANGE = 0.5;
+    private static final long MIN_CHANGE_IN_MILLIS = 100;
+
+    /**
+     * Frames of these packages are not call sites.
+     */
+    private static final List<String> FRAMEWORK_PACKAGES = Arrays.asList(
+            "com.salesforceiq.augmenteddriver.util.", "com.salesforceiq.augmenteddriver.web.",
+            "com.salesforceiq.augmenteddriver.mobile.", "com.salesforceiq.augmenteddriver.asserts.",
+            "com.salesforceiq.augmenteddriver.testcases.", "com.salesforceiq.augmenteddriver.runners.",
+            "com.salesforceiq.augmenteddriver.integrations.", "com.salesforceiq.augmenteddriver.reporters.", "java.", "javax.", "sun.", "jdk.", "org.openqa.",
+            "io.appium.", "com.google.", "org.junit.");
+
+    private final ConcurrentMap<String, Site> sites = new ConcurrentHashMap<>();
+
+    /**
+     * Records a wait, the call site is taken from the current stack.
+     */
+    public void record(Object waitedFor, long elapsedInMillis, long timeoutInMillis, boolean succeeded) {
+        record(callSite(), waitedFor, elapsedInMillis, timeoutInMillis, succeeded);
+    }
+
+    /**
+     * Records a wait that finished in another thread than the one that started it, callSite is the
+     * {@link #callSite()} taken when it started.
+     */
+    public void record(String callSite, Object waitedFor, long elapsedInMillis, long timeoutInMillis, boolean succeeded) {
+        String key = key(callSite, String.valueOf(waitedFor));
+        Site site = sites.get(key);
+        if (site == null) {
+            site = sites.computeIfAbsent(key, ignored -> new Site(callSite, String.valueOf(waitedFor)));
+        }
+        site.record(elapsedInMillis, timeoutInMillis, succeeded);
+    }
+
+    public String report() {
+        List<SiteSummary> summaries = summaries();
+        StringBuilder report = new StringBuilder(String.format("%s call sites, the slowest first:\n", summaries.size()));
+        summaries.forEach(summary -> report.append("  ").append(summary).append('\n'));
+
+        List<SiteSummary> nearTimeout = summaries.stream()
+                .filter(summary -> summary.nearTimeout > 0 || summary.timeouts > 0)
+                .collect(Collectors.toList());
+        if (!nearTimeout.isEmpty()) {
+            report.append(String.format("Waits near their timeout (satisfied after %s%% of it) or timed out:\n", (int) (NEAR_TIMEOUT * 100)));
+            nearTimeout.forEach(summary -> report.append(String.format("  %s %s: %s near, %s timed out of %s, timeout %sms\n",
+                    summary.callSite, summary.waitedFor, summary.nearTimeout, summary.timeouts, summary.count, summary.timeoutInMillis)));
+        }
+
+        List<String> suggestions = summaries.stream()
+                .map(summary -> suggestedTimeoutInSeconds(summary)
+                        .map(suggested -> String.format("  %s %s: %ss instead of %ss",
+                                summary.callSite, summary.waitedFor, suggested, TimeUnit.MILLISECONDS.toSeconds(summary.timeoutInMillis)))
+                        .orElse(null))
+                .filter(suggestion -> suggestion != null)
+                .collect(Collectors.toList());
+        if (!suggestions.isEmpty()) {
+            report.append("Suggested timeouts:\n");
+            suggestions.forEach(suggestion -> report.append(suggestion).append('\n'));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Saves the run in the directory as waits-yyyyMMdd-HHmmss.json.
+     *
+     * @return the call sites that changed from the previous run saved in the directory, empty if there is none or
+     *         the directory is empty (nothing is saved then).
+     */
+    public String save(String directory) {
+        if (Strings.isNullOrEmpty(directory)) {
+            return "";
+        }
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try {
+            Path folder = Files.createDirectories(Paths.get(directory));
+            Optional<Path> previous = latest(folder);
+            Path file = folder.resolve(String.format("waits-%s.json", new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())));
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                gson.toJson(new Snapshot(summaries()), writer);
+            }
+            LOG.info("Waits of the run saved in " + file.toAbsolutePath());
+            if (!previous.isPresent() || previous.get().equals(file)) {
+                return "";
+            }
+            try (Reader reader = Files.newBufferedReader(previous.get(), StandardCharsets.UTF_8)) {
+                return compare(gson.fromJson(reader, Snapshot.class), previous.get().getFileName().toString());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not save the waits of the run in " + directory, e);
+            return "";
+        }
+    }
+
+    private String compare(Snapshot previous, String name) {
+        if (previous == null || previous.sites == null) {
+            return "";
+        }
+        Map<String, SiteSummary> before = previous.sites
+                .stream()
+                .collect(Collectors.toMap(SiteSummary::key, summary -> summary, (one, other) -> one));
+        String changes = summaries().stream()
+                .filter(summary -> before.containsKey(summary.key()))
+                .filter(summary -> {
+                    long difference = Math.abs(summary.p95InMillis - before.get(summary.key()).p95InMillis);
+                    return difference > MIN_CHANGE_IN_MILLIS && difference > before.get(summary.key()).p95InMillis * CHANGE;
+                })
+                .map(summary -> String.format("  %s %s: p95 %sms, was %sms",
+                        summary.callSite, summary.waitedFor, summary.p95InMillis, before.get(summary.key()).p95InMillis))
+                .collect(Collectors.joining("\n"));
+        return changes.isEmpty() ? "" : String.format("Waits that changed since %s:\n%s", name, changes);
+    }
+
+    private static Optional<Path> latest(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files
+                    .filter(file -> file.getFileName().toString().matches("waits-\\d{8}-\\d{6}\\.json"))
+                    .max(Comparator.comparing(file -> file.getFileName().toString()));
+        }
+    }
+
+    private static Optional<Long> suggestedTimeoutInSeconds(SiteSummary summary) {
+        if (summary.count < MIN_SAMPLES || summary.timeouts > 0) {
+            return Optional.empty();
+        }
+        long suggested = Math.max(1, (long) Math.ceil(summary.p99InMillis * HEADROOM / 1000));
+        return suggested < TimeUnit.MILLISECONDS.toSeconds(summary.timeoutInMillis) ? Optional.of(suggested) : Optional.empty();
+    }
+
+    private List<SiteSummary> summaries() {
+        return sites.values()
+                .stream()
+                .map(Site::summary)
+                .sorted(Comparator.comparing((SiteSummary summary) -> summary.p95InMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the first frame of the current stack that is not in the framework, as Class.method:line.
+     */
+    public static String callSite() {
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if (FRAMEWORK_PACKAGES.stream().noneMatch(className::startsWith)) {
+                return String.format("%s.%s:%s", className.substring(className.lastIndexOf('.') + 1),
+                        frame.getMethodName(), frame.getLineNumber());
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * The call site without its line, and the locator.
+     */
+    private static String key(String callSite, String waitedFor) {
+        return callSite.replaceFirst(":\\d+$", "") + " " + waitedFor;
+    }
+
+    private static class Site {
+        private final String callSite;
+        private final String waitedFor;
+        private final LatencyHistogram satisfied = new LatencyHistogram();
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong nearTimeout = new AtomicLong();
+        private final AtomicLong timeoutInMillis = new AtomicLong();
+
+        private Site(String callSite, String waitedFor) {
+            this.callSite = callSite;
+            this.waitedFor = waitedFor;
+        }
+
+        private void record(long elapsedInMillis, long timeout, boolean succeeded) {
+            count.incrementAndGet();
+            timeoutInMillis.accumulateAndGet(timeout, Math::max);
+            if (!succeeded) {
+                timeouts.incrementAndGet();
+                return;
+            }
+            satisfied.record(elapsedInMillis, TimeUnit.MILLISECONDS);
+            if (timeout > 0 && elapsedInMillis >= timeout * NEAR_TIMEOUT) {
+                nearTimeout.incrementAndGet();
+            }
+        }
+
+        private SiteSummary summary() {
+            SiteSummary summary = new SiteSummary();
+            summary.callSite = callSite;
+            summary.waitedFor = waitedFor;
+            summary.count = count.get();
+            summary.timeouts = timeouts.get();
+            summary.nearTimeout = nearTimeout.get();
+            summary.timeoutInMillis = timeoutInMillis.get();
+            summary.p50InMillis = (long) satisfied.percentileInMillis(50);
+            summary.p95InMillis = (long) satisfied.percentileInMillis(95);
+            summary.p99InMillis = (long) satisfied.percentileInMillis(99);
+            return summary;
+        }
+    }
+
+    /**
+     * What is saved of each call site.
+     */
+    private static class SiteSummary {
+        private String callSite;
+        private String waitedFor;
+        private long count;
+        private long timeouts;
+        private long nearTimeout;
+        private long timeoutInMillis;
+        private long p50InMillis;
+        private long p95InMillis;
+        private long p99InMillis;
+
+        private String key() {
+            return WaitTelemetry.key(callSite, waitedFor);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: %s waits, p50 %sms, p95 %sms, p99 %sms, timeout %sms, %s timed out",
+                    callSite, waitedFor, count, p50InMillis, p95InMillis, p99InMillis, timeoutInMillis, timeouts);
+        }
+    }
+
+    private static class Snapshot {
+        private long time;
+        private List<SiteSummary> sites;
+
+        private Snapshot(List<SiteSummary> sites) {
+            this.time = System.currentTimeMillis();
+            this.sites = Lists.newArrayList(sites);
+        }
+    }
+}
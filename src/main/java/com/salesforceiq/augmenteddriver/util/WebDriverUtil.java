@@ -5,9 +5,11 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Utilities around WebDriver.
@@ -21,23 +23,31 @@ public class WebDriverUtil {
         }
     }
 
+    /**
+     * Checks once if the element is there, without waiting: one search, and no exception if it is not found.
+     */
+    public static boolean isElementPresentImmediate(SearchContext parent, By by) {
+        return probe(parent, by, children -> children);
+    }
+
+    /**
+     * Checks once if any of the elements is visible, the states of all of them are checked at the same time.
+     */
+    public static boolean isElementVisibleImmediate(SearchContext parent, By by) {
+        return probe(parent, by, BulkElementStates::visible);
+    }
+
+    /**
+     * Checks once if any of the elements is clickable, the states of all of them are checked at the same time.
+     */
+    public static boolean isElementClickableImmediate(SearchContext parent, By by) {
+        return probe(parent, by, BulkElementStates::clickable);
+    }
+
     public static WebElement findElementVisibleAfter(SearchContext parent, By by, int timeoutInSeconds) {
         try {
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
-            return wait.until((SearchContext element) -> {
-                List<WebElement> children = element.findElements(by);
-                if (children.isEmpty()) {
-                    throw new NotFoundException("No elements found");
-                }
-                Optional<WebElement> displayed = children.stream()
-                        .filter(child -> isElementVisible(child))
-                        .findAny();
-                if (displayed.isPresent()) {
-                    return  displayed.get();
-                } else {
-                    throw new NotFoundException(String.format("Element %s not visible yet", by));
-                }
-            });
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds, by);
+            return wait.until(visible(by));
         } catch (TimeoutException e) {
             throw new TimeoutException(String.format("Element %s is not visible after %s seconds", by, timeoutInSeconds), e);
         }
@@ -45,67 +55,34 @@ public class WebDriverUtil {
 
     public static WebElement findElementClickableAfter(SearchContext parent, By by, int timeoutInSeconds) {
         try {
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
-            return wait.until((SearchContext element) -> {
-                List<WebElement> children = element.findElements(by);
-                if (children.isEmpty()) {
-                    throw new NotFoundException("No elements found");
-                }
-                Optional<WebElement> displayed = children.stream()
-                        .filter(child -> isElementClickable(child))
-                        .findAny();
-                if (displayed.isPresent()) {
-                    return  displayed.get();
-                } else {
-                    throw new NotFoundException(String.format("Element %s not displayed yet", by));
-                }
-            });
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds, by);
+            return wait.until(clickable(by));
         } catch (TimeoutException e) {
             throw new TimeoutException(String.format("Element %s is not clickable after %s seconds", by, timeoutInSeconds), e);
         }
     }
 
+    /**
+     * Waits until the element stops moving and resizing, see {@link StabilityDetector}.
+     */
     public static WebElement findElementNotMovingAfter(SearchContext parent, By by, int timeoutInSeconds) {
-        try {
-            final WebElement[] previous = {null};
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
-            return wait.until((SearchContext element) -> {
-                List<WebElement> children = element.findElements(by);
-                if (children.isEmpty()) {
-                    throw new NotFoundException("No elements found");
-                }
-                WebElement current = children.get(0);
-                if (previous[0] == null) {
-                    previous[0] = current;
-                    throw new NotFoundException(String.format("Element %s has not stop moving yet", by));
-                } else {
-                    if ((Math.abs(current.getLocation().getX() - previous[0].getLocation().getX()) < 5) &&
-                        (Math.abs(current.getLocation().getY() - previous[0].getLocation().getY()) < 5)) {
-                        return current;
-                    } else {
-                        previous[0] = current;
-                        throw new NotFoundException(String.format("Element %s has not stop moving yet", by));
-                    }
-                }
-            });
-        } catch (TimeoutException e) {
-            throw new TimeoutException(String.format("Element %s did not stop moving after %s seconds", by, timeoutInSeconds), e);
-        }
+        return StabilityDetector.findElementStableAfter(parent, by, StabilityDetector.DEFAULT_TOLERANCE_IN_PIXELS,
+                StabilityDetector.DEFAULT_STABLE_SAMPLES, timeoutInSeconds);
     }
 
     public static WebElement findElementContainAfter(SearchContext parent, By by, String text, int timeoutInSeconds) {
         try {
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds, by);
             return wait.until((SearchContext element) -> {
                 List<WebElement> children = element.findElements(by);
                 if (children.isEmpty()) {
-                    throw new NotFoundException("No elements found");
+                    return WaitResult.notYet("No elements found for %s", by);
                 }
                 String value = WebDriverUtil.getText(children.get(0));
                 if (value.contains(text)) {
-                    return children.get(0);
+                    return WaitResult.done(children.get(0));
                 } else {
-                    throw new NotFoundException(String.format("Element %s does not contain text %s, contains %s", by, text, value));
+                    return WaitResult.notYet("Element %s does not contain text %s, contains %s", by, text, value);
                 }
 
             });
@@ -118,15 +95,8 @@ public class WebDriverUtil {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
         try {
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
-            return wait.until((SearchContext element) -> {
-                List<WebElement> children = element.findElements(by);
-                if (children.isEmpty()) {
-                    throw new NotFoundException("No elements found");
-                } else {
-                    return children.get(0);
-                }
-            });
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds, by);
+            return wait.until(present(by));
         } catch (TimeoutException e) {
             throw new TimeoutException(String.format("Element %s is not present after %s seconds", by, timeoutInSeconds), e);
         }
@@ -135,40 +105,49 @@ public class WebDriverUtil {
     public static List<WebElement> findElementsVisibleAfter(SearchContext parent, By by, int waitInSeconds) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
-        findElementVisibleAfter(parent, by, waitInSeconds);
-        return parent.findElements(by)
-                     .stream()
-                     .filter(child -> isElementVisible(child))
-                     .collect(Collectors.toList());
+        try {
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, by);
+            return wait.until((SearchContext element) -> {
+                List<WebElement> displayed = BulkElementStates.visible(element.findElements(by));
+                return displayed.isEmpty() ? WaitResult.notYet("Element %s not visible yet", by) : WaitResult.done(displayed);
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("Element %s is not visible after %s seconds", by, waitInSeconds), e);
+        }
     }
 
     public static List<WebElement> findElementsPresentAfter(SearchContext parent, By by, int waitInSeconds) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
-        findElementPresentAfter(parent, by, waitInSeconds);
-        return parent.findElements(by);
+        try {
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, by);
+            return wait.until((SearchContext element) -> {
+                List<WebElement> children = element.findElements(by);
+                return children.isEmpty() ? WaitResult.notYet("No elements found for %s", by) : WaitResult.done(children);
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("Element %s is not present after %s seconds", by, waitInSeconds), e);
+        }
     }
 
     public static List<WebElement> findElementsClickableAfter(SearchContext parent, By by, int waitInSeconds) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
-        findElementClickableAfter(parent, by, waitInSeconds);
-        return parent.findElements(by)
-                     .stream()
-                     .filter(child -> isElementClickable(child))
-                     .collect(Collectors.toList());
+        try {
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, by);
+            return wait.until((SearchContext element) -> {
+                List<WebElement> clickable = BulkElementStates.clickable(element.findElements(by));
+                return clickable.isEmpty() ? WaitResult.notYet("Element %s not displayed yet", by) : WaitResult.done(clickable);
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("Element %s is not clickable after %s seconds", by, waitInSeconds), e);
+        }
     }
 
     public static void waitElementToNotBePresent(SearchContext parent, By by, int waitInSeconds) {
         try {
-            WebElementWait wait = new WebElementWait(parent, waitInSeconds);
-            wait.until((SearchContext element) -> {
-                List<WebElement> children = element.findElements(by);
-                if (children.isEmpty()) {
-                    return children;
-                }
-                throw new NotFoundException(String.format("Element %s still present yet", by));
-            });
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, by);
+            wait.until(notPresent(by));
         } catch (TimeoutException e) {
             throw new TimeoutException(String.format("Element %s is still present after %s seconds", by, waitInSeconds), e);
         }
@@ -176,23 +155,227 @@ public class WebDriverUtil {
 
     public static void waitElementToNotBeVisible(SearchContext parent, By by, int waitInSeconds) {
         try {
-            WebElementWait wait = new WebElementWait(parent, waitInSeconds);
-            wait.until((SearchContext element) -> {
-                List<WebElement> children = element.findElements(by);
-                Optional<WebElement> isAny = children
-                        .stream()
-                        .filter(elementVisible -> isElementVisible(elementVisible))
-                        .findAny();
-                if (!isAny.isPresent()) {
-                    return children;
-                }
-                throw new NotFoundException(String.format("Element %s still visbile yet", by));
-            });
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, by);
+            wait.until(notVisible(by));
         } catch (TimeoutException e) {
             throw new TimeoutException(String.format("Element %s is still visible after %s seconds", by, waitInSeconds), e);
         }
     }
 
+    /**
+     * Same as {@link #findElementPresentAfter(SearchContext, By, int)}, polled by the {@link WaitScheduler}.
+     */
+    public static CompletableFuture<WebElement> findElementPresentAfterAsync(SearchContext parent, By by, int timeoutInSeconds) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(by);
+        return withTimeoutMessage(new WebElementWait(parent, timeoutInSeconds, by).untilAsync(present(by)),
+                String.format("Element %s is not present after %s seconds", by, timeoutInSeconds));
+    }
+
+    /**
+     * Same as {@link #findElementVisibleAfter(SearchContext, By, int)}, polled by the {@link WaitScheduler}.
+     */
+    public static CompletableFuture<WebElement> findElementVisibleAfterAsync(SearchContext parent, By by, int timeoutInSeconds) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(by);
+        return withTimeoutMessage(new WebElementWait(parent, timeoutInSeconds, by).untilAsync(visible(by)),
+                String.format("Element %s is not visible after %s seconds", by, timeoutInSeconds));
+    }
+
+    /**
+     * Same as {@link #findElementClickableAfter(SearchContext, By, int)}, polled by the {@link WaitScheduler}.
+     */
+    public static CompletableFuture<WebElement> findElementClickableAfterAsync(SearchContext parent, By by, int timeoutInSeconds) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(by);
+        return withTimeoutMessage(new WebElementWait(parent, timeoutInSeconds, by).untilAsync(clickable(by)),
+                String.format("Element %s is not clickable after %s seconds", by, timeoutInSeconds));
+    }
+
+    /**
+     * Same as {@link #waitElementToNotBePresent(SearchContext, By, int)}, polled by the {@link WaitScheduler}.
+     */
+    public static CompletableFuture<Void> waitElementToNotBePresentAsync(SearchContext parent, By by, int waitInSeconds) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(by);
+        return thenApply(withTimeoutMessage(new WebElementWait(parent, waitInSeconds, by).untilAsync(notPresent(by)),
+                String.format("Element %s is still present after %s seconds", by, waitInSeconds)), children -> null);
+    }
+
+    /**
+     * Same as {@link #waitElementToNotBeVisible(SearchContext, By, int)}, polled by the {@link WaitScheduler}.
+     */
+    public static CompletableFuture<Void> waitElementToNotBeVisibleAsync(SearchContext parent, By by, int waitInSeconds) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(by);
+        return thenApply(withTimeoutMessage(new WebElementWait(parent, waitInSeconds, by).untilAsync(notVisible(by)),
+                String.format("Element %s is still visible after %s seconds", by, waitInSeconds)), children -> null);
+    }
+
+    /**
+     * Waits until any of the bys finds an element (visible if onlyVisible), all of them polled together.
+     *
+     * <p>
+     *     On Appium, with many bys, the polls are skipped while the screen does not change, see {@link ScreenFingerprint}.
+     * </p>
+     *
+     * @return the first of the bys (in order) that found one.
+     */
+    public static LocatorMatch<WebElement> findAnyElementAfter(SearchContext parent, List<By> bys, boolean onlyVisible, int timeoutInSeconds) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkArgument(bys != null && !bys.isEmpty(), "At least one By is needed");
+        try {
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds,
+                    String.format("any of %s %s", bys, onlyVisible ? "visible" : "present"));
+            return wait.until(ScreenFingerprint.skipWhileUnchanged(parent, bys.size(), (SearchContext element) -> {
+                for (int index = 0; index < bys.size(); index++) {
+                    Optional<WebElement> found = findFirst(element, bys.get(index), onlyVisible);
+                    if (found.isPresent()) {
+                        return WaitResult.done(new LocatorMatch<>(bys.get(index), index, found.get()));
+                    }
+                }
+                return WaitResult.notYet("None of %s found", bys);
+            }));
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("None of %s is %s after %s seconds", bys, onlyVisible ? "visible" : "present", timeoutInSeconds), e);
+        }
+    }
+
+    /**
+     * Waits until all the bys find an element (visible if onlyVisible) in the same poll.
+     *
+     * @return one match per by, in the same order.
+     */
+    public static List<LocatorMatch<WebElement>> findAllElementsAfter(SearchContext parent, List<By> bys, boolean onlyVisible, int timeoutInSeconds) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkArgument(bys != null && !bys.isEmpty(), "At least one By is needed");
+        try {
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds,
+                    String.format("all of %s %s", bys, onlyVisible ? "visible" : "present"));
+            return wait.until(ScreenFingerprint.skipWhileUnchanged(parent, bys.size(), (SearchContext element) -> {
+                List<LocatorMatch<WebElement>> matches = new ArrayList<>(bys.size());
+                for (int index = 0; index < bys.size(); index++) {
+                    Optional<WebElement> found = findFirst(element, bys.get(index), onlyVisible);
+                    if (!found.isPresent()) {
+                        return WaitResult.notYet("Element %s not found yet", bys.get(index));
+                    }
+                    matches.add(new LocatorMatch<>(bys.get(index), index, found.get()));
+                }
+                return WaitResult.done(matches);
+            }));
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("Not all of %s are %s after %s seconds", bys, onlyVisible ? "visible" : "present", timeoutInSeconds), e);
+        }
+    }
+
+    private static Function<SearchContext, WaitResult<WebElement>> present(By by) {
+        return (SearchContext element) -> {
+            List<WebElement> children = element.findElements(by);
+            if (children.isEmpty()) {
+                return WaitResult.notYet("No elements found for %s", by);
+            } else {
+                return WaitResult.done(children.get(0));
+            }
+        };
+    }
+
+    private static Function<SearchContext, WaitResult<WebElement>> visible(By by) {
+        return (SearchContext element) -> {
+            List<WebElement> children = element.findElements(by);
+            if (children.isEmpty()) {
+                return WaitResult.notYet("No elements found for %s", by);
+            }
+            List<WebElement> displayed = BulkElementStates.visible(children);
+            if (!displayed.isEmpty()) {
+                return WaitResult.done(displayed.get(0));
+            } else {
+                return WaitResult.notYet("Element %s not visible yet", by);
+            }
+        };
+    }
+
+    private static Function<SearchContext, WaitResult<WebElement>> clickable(By by) {
+        return (SearchContext element) -> {
+            List<WebElement> children = element.findElements(by);
+            if (children.isEmpty()) {
+                return WaitResult.notYet("No elements found for %s", by);
+            }
+            List<WebElement> clickable = BulkElementStates.clickable(children);
+            if (!clickable.isEmpty()) {
+                return WaitResult.done(clickable.get(0));
+            } else {
+                return WaitResult.notYet("Element %s not displayed yet", by);
+            }
+        };
+    }
+
+    private static Function<SearchContext, WaitResult<List<WebElement>>> notPresent(By by) {
+        return (SearchContext element) -> {
+            List<WebElement> children = element.findElements(by);
+            if (children.isEmpty()) {
+                return WaitResult.done(children);
+            }
+            return WaitResult.notYet("Element %s still present yet", by);
+        };
+    }
+
+    private static Function<SearchContext, WaitResult<List<WebElement>>> notVisible(By by) {
+        return (SearchContext element) -> {
+            List<WebElement> children = element.findElements(by);
+            if (BulkElementStates.visible(children).isEmpty()) {
+                return WaitResult.done(children);
+            }
+            return WaitResult.notYet("Element %s still visbile yet", by);
+        };
+    }
+
+    /**
+     * Same as wait.thenApply(function), but cancelling the result cancels the wait too, so its polls stop.
+     */
+    public static <T, V> CompletableFuture<V> thenApply(CompletableFuture<T> wait, Function<? super T, ? extends V> function) {
+        Preconditions.checkNotNull(wait);
+        Preconditions.checkNotNull(function);
+        CompletableFuture<V> result = wait.thenApply(function);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                wait.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Wraps the TimeoutException of the wait as the sync methods do, cancelling the result cancels the wait.
+     */
+    private static <V> CompletableFuture<V> withTimeoutMessage(CompletableFuture<V> wait, String message) {
+        CompletableFuture<V> result = new CompletableFuture<>();
+        wait.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (error instanceof TimeoutException) {
+                result.completeExceptionally(new TimeoutException(message, error));
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                wait.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private static Optional<WebElement> findFirst(SearchContext parent, By by, boolean onlyVisible) {
+        List<WebElement> children = parent.findElements(by);
+        if (!onlyVisible) {
+            return children.stream().findFirst();
+        }
+        return children.stream()
+                .filter(child -> isElementVisible(child))
+                .findFirst();
+    }
+
     public static void moveToAndClick(RemoteWebDriver parent, By moveTo, By click, int waitInSeconds) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(moveTo);
@@ -219,9 +402,18 @@ public class WebDriverUtil {
         return element.isDisplayed();
     }
 
-    private static boolean isElementClickable(WebElement element) {
-        Preconditions.checkNotNull(element);
-        return element.isDisplayed() && element.isEnabled();
+    /**
+     * Only fails if an element went away or the server failed, that a wait would take as not there yet.
+     */
+    private static boolean probe(SearchContext parent, By by, Function<List<WebElement>, List<WebElement>> filter) {
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(by);
+        try {
+            List<WebElement> children = parent.findElements(by);
+            return !children.isEmpty() && !filter.apply(children).isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
     }
 
     public static boolean isChrome(RemoteWebDriver driver) {
@@ -1,19 +1,222 @@
 package com.salesforceiq.augmenteddriver.util;
 
+import com.google.common.base.Preconditions;
+import com.salesforceiq.augmenteddriver.util.polling.PollingStrategies;
+import com.salesforceiq.augmenteddriver.util.polling.PollingStrategy;
+import org.openqa.selenium.By;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriverException;
-import org.openqa.selenium.support.ui.FluentWait;
-import org.openqa.selenium.support.ui.Sleeper;
-import org.openqa.selenium.support.ui.SystemClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
-class WebElementWait extends FluentWait<SearchContext> {
+/**
+ * Waits until a condition on the element is done, ignoring WebDriverExceptions.
+ *
+ * <p>
+ *     The time between polls is decided by the {@link PollingStrategy}, {@link PollingStrategies#getDefault()} if
+ *     none is given. The polls of {@link #until(Function)} run in the calling thread, that sleeps between them,
+ *     the ones of {@link #untilAsync(Function)} are run by the {@link WaitScheduler}, no thread sleeps between
+ *     them.
+ * </p>
+ */
+class WebElementWait {
+    private static final Logger LOG = LoggerFactory.getLogger(WebElementWait.class);
 
-    public WebElementWait(SearchContext element, long timeoutInSeconds) {
-        super(element, new SystemClock(), Sleeper.SYSTEM_SLEEPER);
-        withTimeout(timeoutInSeconds, TimeUnit.SECONDS);
-        pollingEvery(500, TimeUnit.MILLISECONDS);
-        ignoring(WebDriverException.class);
+    private final SearchContext element;
+    private final long timeoutInMillis;
+    private final By by;
+    private final String description;
+    private final PollingStrategy pollingStrategy;
+    private volatile int polls;
+    private volatile long elapsedInMillis;
+    private volatile WaitResult<?> lastResult;
+    private volatile WebDriverException lastException;
+
+    /**
+     * @param description what is waited for when it is not one By, i.e. "any of [By.id: a, By.id: b]", it is the
+     *                    key of the wait in {@link WaitTelemetry} and {@link TestBudget}.
+     */
+    public WebElementWait(SearchContext element, long timeoutInSeconds, String description) {
+        this(element, timeoutInSeconds, null, Preconditions.checkNotNull(description), PollingStrategies.getDefault());
+    }
+
+    public WebElementWait(SearchContext element, long timeoutInSeconds, By by) {
+        this(element, timeoutInSeconds, by, PollingStrategies.getDefault());
+    }
+
+    public WebElementWait(SearchContext element, long timeoutInSeconds, By by, PollingStrategy pollingStrategy) {
+        this(element, timeoutInSeconds, by, null, pollingStrategy);
+    }
+
+    private WebElementWait(SearchContext element, long timeoutInSeconds, By by, String description, PollingStrategy pollingStrategy) {
+        this.element = Preconditions.checkNotNull(element);
+        this.timeoutInMillis = TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        this.by = by;
+        this.description = description;
+        this.pollingStrategy = Preconditions.checkNotNull(pollingStrategy);
+    }
+
+    /**
+     * Polls the condition until it is done.
+     *
+     * <p>
+     *     If the test has a {@link TestBudget} the wait lasts at most what is left of it.
+     * </p>
+     *
+     * @throws TimeoutException with the last reason the condition was not done, or the last exception.
+     * @throws AssertionError if the budget of the test is over.
+     */
+    public <V> V until(Function<SearchContext, WaitResult<V>> condition) {
+        long effectiveTimeoutInMillis = TestBudget.timeoutInMillis(timeoutInMillis);
+        PollingStrategy.Schedule schedule = pollingStrategy.start(by);
+        String callSite = WaitTelemetry.callSite();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            while (true) {
+                WaitResult<V> result = poll(condition);
+                if (result != null) {
+                    succeeded = true;
+                    return result.getValue();
+                }
+                elapsedInMillis = elapsed(start);
+                long remaining = effectiveTimeoutInMillis - elapsedInMillis;
+                if (remaining <= 0) {
+                    if (effectiveTimeoutInMillis < timeoutInMillis) {
+                        break;
+                    }
+                    throw timedOut(condition);
+                }
+                Util.pause(Math.max(1, Math.min(remaining, schedule.nextSleepInMillis(polls, elapsedInMillis))));
+            }
+        } finally {
+            finished(condition, schedule, callSite, start, succeeded);
+        }
+        throw TestBudget.current().exceeded();
+    }
+
+    /**
+     * Polls the condition in the {@link WaitScheduler}, no thread waits between the polls.
+     *
+     * <p>
+     *     The budget of the test that started the wait is taken now, the polls run as part of it. Cancelling the
+     *     future stops the polls.
+     * </p>
+     *
+     * @return the value, or completes with the same exceptions as {@link #until(Function)}.
+     */
+    public <V> CompletableFuture<V> untilAsync(Function<SearchContext, WaitResult<V>> condition) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        TestBudget budget = TestBudget.current();
+        long effectiveTimeoutInMillis;
+        try {
+            effectiveTimeoutInMillis = TestBudget.timeoutInMillis(timeoutInMillis);
+        } catch (AssertionError e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        PollingStrategy.Schedule schedule = pollingStrategy.start(by);
+        String callSite = WaitTelemetry.callSite();
+        long start = System.nanoTime();
+        WaitScheduler.schedule(() -> TestBudget.callWith(budget,
+                () -> pollAsync(condition, future, schedule, callSite, start, effectiveTimeoutInMillis)), 0);
+        return future;
+    }
+
+    private <V> Void pollAsync(Function<SearchContext, WaitResult<V>> condition, CompletableFuture<V> future,
+                               PollingStrategy.Schedule schedule, String callSite, long start, long effectiveTimeoutInMillis) {
+        if (future.isDone()) {
+            return null;
+        }
+        try {
+            WaitResult<V> result = poll(condition);
+            if (result != null) {
+                finished(condition, schedule, callSite, start, true);
+                future.complete(result.getValue());
+                return null;
+            }
+            elapsedInMillis = elapsed(start);
+            long remaining = effectiveTimeoutInMillis - elapsedInMillis;
+            if (remaining <= 0) {
+                finished(condition, schedule, callSite, start, false);
+                future.completeExceptionally(effectiveTimeoutInMillis < timeoutInMillis
+                        ? TestBudget.current().exceeded() : timedOut(condition));
+                return null;
+            }
+            TestBudget budget = TestBudget.current();
+            WaitScheduler.schedule(() -> TestBudget.callWith(budget,
+                    () -> pollAsync(condition, future, schedule, callSite, start, effectiveTimeoutInMillis)),
+                    Math.max(1, Math.min(remaining, schedule.nextSleepInMillis(polls, elapsedInMillis))));
+        } catch (RuntimeException | Error e) {
+            finished(condition, schedule, callSite, start, false);
+            future.completeExceptionally(e);
+        }
+        return null;
+    }
+
+    /**
+     * @return the result if the condition is done, null if not (the reason or exception is kept for the timeout).
+     */
+    private <V> WaitResult<V> poll(Function<SearchContext, WaitResult<V>> condition) {
+        polls++;
+        try {
+            WaitResult<V> result = condition.apply(element);
+            if (result.isDone()) {
+                return result;
+            }
+            lastResult = result;
+            lastException = null;
+        } catch (WebDriverException e) {
+            lastException = e;
+        }
+        return null;
+    }
+
+    private TimeoutException timedOut(Object condition) {
+        String reason = lastException != null || lastResult == null ? "" : ": " + lastResult.getReason();
+        return new TimeoutException(String.format("Timed out after %s seconds waiting for %s%s",
+                TimeUnit.MILLISECONDS.toSeconds(timeoutInMillis), waitedFor(condition), reason), lastException);
+    }
+
+    private void finished(Object condition, PollingStrategy.Schedule schedule, String callSite, long start, boolean succeeded) {
+        elapsedInMillis = elapsed(start);
+        schedule.finished(succeeded, elapsedInMillis);
+        TestBudget.record(waitedFor(condition), elapsedInMillis, succeeded);
+        WaitTelemetry.RUN.record(callSite, waitedFor(condition), elapsedInMillis, timeoutInMillis, succeeded);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Waited for %s %sms, %s polls with %s, %s",
+                    waitedFor(condition), elapsedInMillis, polls, pollingStrategy, succeeded ? "succeeded" : "failed"));
+        }
+    }
+
+    /**
+     * @return the by, the description, or the condition if the wait has none of them.
+     */
+    private Object waitedFor(Object condition) {
+        if (by != null) {
+            return by;
+        }
+        return description != null ? description : condition;
+    }
+
+    public int getPolls() {
+        return polls;
+    }
+
+    public long getElapsedInMillis() {
+        return elapsedInMillis;
+    }
+
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
+    private static long elapsed(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
     }
 }
@@ -7,68 +7,130 @@ import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 import java.util.zip.CRC32;
 
+/**
+ * Converts the YAML files with the desired capabilities.
+ *
+ * <p>
+ *     Every file is parsed once, keyed by its path and the hash of its content (so an edited file is parsed again).
+ *     Each call builds its own capabilities from the parsed file, with copies of the nested maps and lists, so they
+ *     can be modified freely.
+ * </p>
+ */
 public class YamlCapabilitiesConverter {
 
     private static final String CAPABILITIES = "capabilities";
     private static final String CHROME_EXTENSION = "chromeExtension";
 
-    @SuppressWarnings("unchecked")
+    private static final ConcurrentMap<String, Map<String, Object>> PARSED = new ConcurrentHashMap<>();
+
+    /**
+     * @return a new copy of the capabilities defined in the yaml file.
+     */
     public static DesiredCapabilities convert(Path yamlFile) throws YamlException {
         Preconditions.checkNotNull(yamlFile);
         Preconditions.checkArgument(Files.exists(yamlFile));
+        byte[] content;
         try {
-            YamlReader yamlReader = new YamlReader(new FileReader(yamlFile.toFile()));
-            Map<String, String> properties = (Map<String, String>) yamlReader.read();
-            if (!properties.containsKey(CAPABILITIES)) {
-                throw new IllegalArgumentException(String.format("File %s should have property capabilities, got %s", yamlFile, properties));
-            }
-            DesiredCapabilities capabilities = Capabilities.valueOf(properties.remove(CAPABILITIES).toUpperCase()).getCapabilities();
-            properties.entrySet()
-                    .stream()
-                    .forEach(pair -> capabilities.setCapability(pair.getKey(), pair.getValue()));
+            content = Files.readAllBytes(yamlFile);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + yamlFile, e);
+        }
+        CRC32 hash = new CRC32();
+        hash.update(content);
+        String key = yamlFile.toAbsolutePath().normalize() + ":" + hash.getValue();
+
+        Map<String, Object> properties = PARSED.get(key);
+        if (properties == null) {
+            properties = parse(yamlFile, new String(content, StandardCharsets.UTF_8));
+            PARSED.putIfAbsent(key, properties);
+        }
+        return build(properties);
+    }
 
-            if (properties.containsKey(CHROME_EXTENSION)) {
-                ChromeOptions options = new ChromeOptions();
-                options.addExtensions(new File(properties.get(CHROME_EXTENSION)));
-                capabilities.setCapability(ChromeOptions.CAPABILITY, options);
-            }
-            return capabilities;
-        } catch (FileNotFoundException e) {
-            // Thsi should never happen
-            throw new IllegalStateException(e);
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(Path yamlFile, String content) throws YamlException {
+        YamlReader yamlReader = new YamlReader(new StringReader(content));
+        Map<String, Object> properties = (Map<String, Object>) yamlReader.read();
+        if (properties == null || !properties.containsKey(CAPABILITIES)) {
+            throw new IllegalArgumentException(String.format("File %s should have property capabilities, got %s", yamlFile, properties));
+        }
+        Capabilities.valueOf(properties.get(CAPABILITIES).toString().toUpperCase());
+        return Collections.unmodifiableMap(properties);
+    }
+
+    private static DesiredCapabilities build(Map<String, Object> properties) {
+        DesiredCapabilities capabilities = Capabilities.valueOf(properties.get(CAPABILITIES).toString().toUpperCase()).getCapabilities();
+        properties.entrySet()
+                .stream()
+                .filter(pair -> !CAPABILITIES.equals(pair.getKey()))
+                .forEach(pair -> capabilities.setCapability(pair.getKey(), copy(pair.getValue())));
+
+        if (properties.containsKey(CHROME_EXTENSION)) {
+            ChromeOptions options = new ChromeOptions();
+            options.addExtensions(new File(properties.get(CHROME_EXTENSION).toString()));
+            capabilities.setCapability(ChromeOptions.CAPABILITY, options);
+        }
+        return capabilities;
+    }
+
+    /**
+     * @return a deep copy of the maps and lists read from the yaml, the rest (strings) are immutable.
+     */
+    private static Object copy(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((key, nested) -> copy.put(key, copy(nested)));
+            return copy;
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            ((List<?>) value).forEach(nested -> copy.add(copy(nested)));
+            return copy;
         }
+        return value;
     }
 
     private enum Capabilities {
-        ANDROID(DesiredCapabilities.android()),
-        CHROME(DesiredCapabilities.chrome()),
-        FIREFOX(DesiredCapabilities.firefox()),
-        EDGE(DesiredCapabilities.edge()),
-        HTMLUNIT(DesiredCapabilities.htmlUnit()),
-        HTMLUNITWITHJS(DesiredCapabilities.htmlUnitWithJs()),
-        INTERNETEXPLORE(DesiredCapabilities.internetExplorer()),
-        IPAD(DesiredCapabilities.ipad()),
-        IPHONE(DesiredCapabilities.iphone()),
-        OPERABLINK(DesiredCapabilities.operaBlink()),
-        PHANTOMJS(DesiredCapabilities.phantomjs()),
-        SAFARI(DesiredCapabilities.safari()),
+        ANDROID(DesiredCapabilities::android),
+        CHROME(DesiredCapabilities::chrome),
+        FIREFOX(DesiredCapabilities::firefox),
+        EDGE(DesiredCapabilities::edge),
+        HTMLUNIT(DesiredCapabilities::htmlUnit),
+        HTMLUNITWITHJS(DesiredCapabilities::htmlUnitWithJs),
+        INTERNETEXPLORE(DesiredCapabilities::internetExplorer),
+        IPAD(DesiredCapabilities::ipad),
+        IPHONE(DesiredCapabilities::iphone),
+        OPERABLINK(DesiredCapabilities::operaBlink),
+        PHANTOMJS(DesiredCapabilities::phantomjs),
+        SAFARI(DesiredCapabilities::safari),
         ;
 
-        private final DesiredCapabilities capabilities;
+        private final Supplier<DesiredCapabilities> capabilities;
 
-        Capabilities(DesiredCapabilities capabilities) {
+        Capabilities(Supplier<DesiredCapabilities> capabilities) {
             this.capabilities = capabilities;
         }
 
+        /**
+         * @return new capabilities every time, they are modified with the ones in the yaml.
+         */
         public DesiredCapabilities getCapabilities() {
-            return capabilities;
+            return capabilities.get();
         }
     }
 }
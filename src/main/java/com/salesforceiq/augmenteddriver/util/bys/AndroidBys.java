@@ -9,7 +9,8 @@ public class AndroidBys {
     public static final By elementWithContentDesc(String element, String contentDescription) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(element));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(contentDescription));
-        return By.xpath(String.format(".//%s[@content-desc='%s']", element, contentDescription));
+        return LocatorOptimizer.optimize(By.xpath(String.format(".//%s[@content-desc='%s']", element, contentDescription)),
+                LocatorOptimizer.Target.ANDROID);
     }
 
     public static final By editTextWithContentDesc(String contentDescription) {
@@ -19,13 +20,15 @@ public class AndroidBys {
     public static final By elementContainsText(String element, String name) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(element));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
-        return By.xpath(String.format(".//%s[contains(@text, '%s')]", element, name));
+        return LocatorOptimizer.optimize(By.xpath(String.format(".//%s[contains(@text, '%s')]", element, name)),
+                LocatorOptimizer.Target.ANDROID);
     }
 
     public static final By elementWithText(String element, String name) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(element));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
-        return By.xpath(String.format(".//%s[@text='%s']", element, name));
+        return LocatorOptimizer.optimize(By.xpath(String.format(".//%s[@text='%s']", element, name)),
+                LocatorOptimizer.Target.ANDROID);
     }
 
     public static final By textViewWithText(String text) {
@@ -0,0 +1,123 @@
+package com.salesforceiq.augmenteddriver.util.bys;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import io.appium.java_client.MobileBy;
+import org.openqa.selenium.By;
+
+/**
+ * The same builders as {@link AndroidBys}, with UiAutomator selectors instead of XPath.
+ *
+ * <p>
+ *     UiAutomator searches run on the device over the live hierarchy, while an XPath search makes Appium dump the
+ *     whole hierarchy first. The scrollIntoView builders also scroll a container until the element shows up, in the
+ *     same command: UiScrollable.scrollIntoView first scrolls the container back to its beginning, and then forward
+ *     up to 30 swipes.
+ * </p>
+ */
+public class AndroidUiAutomatorBys {
+
+    private static final String UI_AUTOMATOR_PREFIX = "By.AndroidUIAutomator: ";
+    private static final String SCROLLABLE = "new UiScrollable(new UiSelector().scrollable(true).instance(0))";
+
+    public static final By elementWithContentDesc(String element, String contentDescription) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(contentDescription));
+        return MobileBy.AndroidUIAutomator(selector(element, "description", contentDescription));
+    }
+
+    public static final By editTextWithContentDesc(String contentDescription) {
+        return elementWithContentDesc("android.widget.EditText", contentDescription);
+    }
+
+    public static final By elementContainsText(String element, String name) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        return MobileBy.AndroidUIAutomator(selector(element, "textContains", name));
+    }
+
+    public static final By elementWithText(String element, String name) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        return MobileBy.AndroidUIAutomator(selector(element, "text", name));
+    }
+
+    public static final By textViewWithText(String text) {
+        return elementWithText("android.widget.TextView", text);
+    }
+
+    public static final By textViewWithContentDesc(String contentDesc) {
+        return elementWithContentDesc("android.widget.TextView", contentDesc);
+    }
+
+    public static final By imageButtonWithContentDesc(String contentDesc) {
+        return elementWithContentDesc("android.widget.ImageButton", contentDesc);
+    }
+
+    public static final By textViewContainsText(String text) {
+        return elementContainsText("android.widget.TextView", text);
+    }
+
+    public static final By scrollIntoViewWithText(String element, String text) {
+        return scrollIntoView(elementWithText(element, text));
+    }
+
+    public static final By scrollIntoViewContainsText(String element, String text) {
+        return scrollIntoView(elementContainsText(element, text));
+    }
+
+    public static final By scrollIntoViewWithContentDesc(String element, String contentDescription) {
+        return scrollIntoView(elementWithContentDesc(element, contentDescription));
+    }
+
+    /**
+     * Scrolls the first scrollable container of the screen until an element of the UiAutomator by shows up and finds
+     * it.
+     *
+     * <p>
+     *     The XPath builders of {@link AndroidBys} are accepted too when {@link LocatorOptimizer} rewrites them to
+     *     UiAutomator. The search fails if the element is not in the container.
+     * </p>
+     *
+     * @throws IllegalArgumentException if the by is not a UiSelector.
+     */
+    public static final By scrollIntoView(By by) {
+        return scrollIntoViewOf(SCROLLABLE, by);
+    }
+
+    /**
+     * Same as {@link #scrollIntoView(By)}, scrolling the container with the resource id instead of the first
+     * scrollable one.
+     */
+    public static final By scrollIntoView(String containerResourceId, By by) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(containerResourceId));
+        return scrollIntoViewOf(String.format("new UiScrollable(new UiSelector().resourceId(\"%s\"))",
+                quoted(containerResourceId)), by);
+    }
+
+    /**
+     * @return if the by is, or {@link LocatorOptimizer} rewrites it to, a plain UiSelector that can be scrolled to.
+     */
+    public static boolean isUiSelector(By by) {
+        Preconditions.checkNotNull(by);
+        return isUiSelector(LocatorOptimizer.optimize(by, LocatorOptimizer.Target.ANDROID).toString());
+    }
+
+    private static By scrollIntoViewOf(String scrollable, By by) {
+        Preconditions.checkNotNull(by);
+        String description = LocatorOptimizer.optimize(by, LocatorOptimizer.Target.ANDROID).toString();
+        Preconditions.checkArgument(isUiSelector(description), "%s is not a UiSelector", by);
+        return MobileBy.AndroidUIAutomator(String.format("%s.scrollIntoView(%s)",
+                scrollable, description.substring(UI_AUTOMATOR_PREFIX.length())));
+    }
+
+    private static boolean isUiSelector(String description) {
+        return description.startsWith(UI_AUTOMATOR_PREFIX + "new UiSelector()") && !description.contains("UiScrollable");
+    }
+
+    private static String selector(String element, String method, String value) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(element));
+        return String.format("new UiSelector().className(\"%s\").%s(\"%s\")", quoted(element), method, quoted(value));
+    }
+
+    private static String quoted(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
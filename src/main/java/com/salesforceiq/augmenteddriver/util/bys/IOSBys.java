@@ -18,7 +18,8 @@ public class IOSBys {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(element));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(attributeName));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(attributeValue));
-        return By.xpath(String.format(".//%s[@%s='%s']", element, attributeName, attributeValue));
+        return LocatorOptimizer.optimize(By.xpath(String.format(".//%s[@%s='%s']", element, attributeName, attributeValue)),
+                LocatorOptimizer.Target.IOS);
     }
 
     public static final By buttonWithName(String name) {
@@ -0,0 +1,154 @@
+package com.salesforceiq.augmenteddriver.util.bys;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import io.appium.java_client.MobileBy;
+import org.openqa.selenium.By;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The same builders as {@link IOSBys}, with UIAutomation predicates instead of XPath.
+ *
+ * <p>
+ *     The predicate runs in Instruments over the live hierarchy, while an XPath search makes Appium dump the whole
+ *     hierarchy first. UIAutomation predicates cannot match the class of the elements, so the elements found are
+ *     filtered by class after the search, with one more command per element found: they pay off when the predicate
+ *     matches few elements, see MobileLocatorBenchmark.
+ * </p>
+ */
+public class IOSPredicateBys {
+
+    private static final Pattern PREDICATE =
+            Pattern.compile("^By\\.IosUIAutomation: \\.getAllWithPredicate\\(\"(.+)\", true\\) of class ([\\w.]+)$");
+    private static final Pattern XPATH = Pattern.compile("^By\\.xpath: \\.//([\\w.]+)\\[@([\\w\\-]+)='([^']*)'\\]$");
+
+    public static final By elementWithName(String element, String name) {
+        return elementWithAttribute(element, "name", name);
+    }
+
+    public static final By elementWithValue(String element, String value) {
+        return elementWithAttribute(element, "value", value);
+    }
+
+    public static final By elementWithAttribute(String element, String attributeName, String attributeValue) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(element));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(attributeName));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(attributeValue));
+        By predicate = MobileBy.IosUIAutomation(String.format(".getAllWithPredicate(\"%s == '%s'\", true)",
+                attributeName, quoted(attributeValue)));
+        return new OfClassBy(predicate, element);
+    }
+
+    public static final By buttonWithName(String name) {
+        return elementWithName("UIAButton", name);
+    }
+
+    public static final By staticTextWithName(String name) {
+        return elementWithName("UIAStaticText", name);
+    }
+
+    public static final By textFieldWithName(String name) {
+        return elementWithName("UIATextField", name);
+    }
+
+    public static final By textFieldWithValue(String name) {
+        return elementWithValue("UIATextField", name);
+    }
+
+    public static final By collectionCellWithName(String name) {
+        return elementWithName("UIACollectionCell", name);
+    }
+
+    public static final By imageWithName(String name) {
+        return elementWithName("UIAImage", name);
+    }
+
+    public static final By secureTextFieldWithName(String name) {
+        return elementWithName("UIASecureTextField", name);
+    }
+
+    public static final By elementWithName(String name) {
+        return elementWithName("UIAElement", name);
+    }
+
+    public static final By tableCellWithName(String name) {
+        return elementWithName("UIATableCell", name);
+    }
+
+    public static final By tableGroupWithName(String name) {
+        return elementWithName("UIATableGroup", name);
+    }
+
+    public static final By tableViewWithName(String name) {
+        return elementWithName("UIATableView", name);
+    }
+
+    public static final By navigationBarWithName(String name) {
+        return elementWithName("UIANavigationBar", name);
+    }
+
+    public static final By searchBarWithName(String name) {
+        return elementWithName("UIASearchBar", name);
+    }
+
+    public static final By searchBarWithValue(String name) {
+        return elementWithValue("UIASearchBar", name);
+    }
+
+    public static final By scrollToElementWithName(String element, String name) {
+        return scrollToElement(elementWithName(element, name));
+    }
+
+    public static final By scrollToElementWithValue(String element, String value) {
+        return scrollToElement(elementWithValue(element, value));
+    }
+
+    /**
+     * Scrolls the scroll view the search starts from until an element of the by is visible and finds it.
+     *
+     * <p>
+     *     Takes the bys of this class, or the single attribute XPaths of {@link IOSBys}. It has to be searched from
+     *     the scroll view (a UIATableView, UIACollectionView or UIAScrollView), and finds only the first element
+     *     with the attribute, that has to be of the class of the by.
+     * </p>
+     *
+     * @throws IllegalArgumentException if the by is not a predicate of one attribute.
+     */
+    public static final By scrollToElement(By by) {
+        Preconditions.checkNotNull(by);
+        Matcher predicate = predicate(by);
+        Preconditions.checkArgument(predicate != null, "%s is not a predicate", by);
+        return new OfClassBy(MobileBy.IosUIAutomation(String.format(".scrollToElementWithPredicate(\"%s\")", predicate.group(1))),
+                predicate.group(2));
+    }
+
+    /**
+     * @return if the by is a predicate of this class, or an XPath of {@link IOSBys} that can be one.
+     */
+    public static boolean isPredicate(By by) {
+        Preconditions.checkNotNull(by);
+        return predicate(by) != null;
+    }
+
+    private static Matcher predicate(By by) {
+        Matcher predicate = PREDICATE.matcher(by.toString());
+        if (predicate.matches()) {
+            return predicate;
+        }
+        Matcher xpath = XPATH.matcher(LocatorOptimizer.original(by).toString());
+        if (xpath.matches()) {
+            predicate = PREDICATE.matcher(elementWithAttribute(xpath.group(1), xpath.group(2), xpath.group(3)).toString());
+            return predicate.matches() ? predicate : null;
+        }
+        return null;
+    }
+
+    /**
+     * Escapes for a single quoted string of the predicate, inside the double quoted string of the script.
+     */
+    private static String quoted(String value) {
+        return value.replace("\\", "\\\\\\\\").replace("'", "\\\\'").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,213 @@
+package com.salesforceiq.augmenteddriver.util.bys;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import io.appium.java_client.MobileBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites simple XPaths into faster locator strategies.
+ *
+ * <p>
+ *     XPath is the slowest strategy, specially on Appium, where the server serializes the whole hierarchy for each
+ *     search. Single step XPaths with one attribute predicate, like the ones of {@link AndroidBys} and {@link IOSBys},
+ *     have an equivalent with a faster strategy:
+ * </p>
+ * <ul>
+ *     <li>Web: id, or CSS attribute selectors, for every search of
+ *     {@link com.salesforceiq.augmenteddriver.web.AugmentedWebDriver} and its elements.</li>
+ *     <li>Android: id, accessibility id, or UiAutomator selectors.</li>
+ *     <li>iOS: accessibility id for names, only if the XPath has no class: checking the class of the elements found
+ *     costs one command per element, more than what the XPath saves.</li>
+ * </ul>
+ * <p>
+ *     Anything else is kept as XPath. If the server rejects the new strategy the XPath is used instead, and that
+ *     rewrite is not done again. How many searches used each rewrite is in {@link #report()}.
+ * </p>
+ */
+public class LocatorOptimizer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocatorOptimizer.class);
+
+    public enum Target {
+        WEB,
+        ANDROID,
+        IOS
+    }
+
+    private static final String FALLBACK = "fell back to xpath";
+
+    private static final Pattern XPATH = Pattern.compile("^\\.//([\\w.\\-]+|\\*)\\[(.+)\\]$");
+    private static final Pattern EQUALS = Pattern.compile("^@([\\w\\-]+)\\s*=\\s*'([^']*)'$");
+    private static final Pattern CONTAINS = Pattern.compile("^contains\\(\\s*@([\\w\\-]+)\\s*,\\s*'([^']*)'\\s*\\)$");
+
+    private static final Map<String, AtomicLong> REWRITES = Maps.newConcurrentMap();
+    private static final Set<String> UNSUPPORTED = Sets.newConcurrentHashSet();
+
+    /**
+     * @return a By with a faster strategy that finds the same elements, or the same by if there is none.
+     */
+    public static By optimize(By by, Target target) {
+        Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(target);
+        String description = by.toString();
+        if (!description.startsWith("By.xpath: ")) {
+            return by;
+        }
+        OptimizedBy optimized = rewrite(by, description.substring("By.xpath: ".length()).trim(), target);
+        return optimized == null || UNSUPPORTED.contains(optimized.rewrite) ? by : optimized;
+    }
+
+    /**
+     * @return the XPath a By returned by {@link #optimize(By, Target)} was rewritten from, the same by if it was not.
+     */
+    public static By original(By by) {
+        Preconditions.checkNotNull(by);
+        return by instanceof OptimizedBy ? ((OptimizedBy) by).xpath : by;
+    }
+
+    /**
+     * @return how many searches were done with each rewrite, or fell back to XPath.
+     */
+    public static String report() {
+        return new TreeMap<>(REWRITES)
+                .entrySet()
+                .stream()
+                .map(entry -> String.format("%s: %s", entry.getKey(), entry.getValue().get()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    static long count(String rewrite) {
+        AtomicLong count = REWRITES.get(rewrite);
+        return count == null ? 0 : count.get();
+    }
+
+    private static OptimizedBy rewrite(By xpath, String expression, Target target) {
+        Matcher step = XPATH.matcher(expression);
+        if (!step.matches()) {
+            return null;
+        }
+        String tag = "*".equals(step.group(1)) ? null : step.group(1);
+        Matcher equals = EQUALS.matcher(step.group(2).trim());
+        Matcher contains = CONTAINS.matcher(step.group(2).trim());
+        boolean exact = equals.matches();
+        if (!exact && !contains.matches()) {
+            return null;
+        }
+        String attribute = exact ? equals.group(1) : contains.group(1);
+        String value = exact ? equals.group(2) : contains.group(2);
+        switch (target) {
+            case WEB:
+                return web(xpath, tag, attribute, value, exact);
+            case ANDROID:
+                return android(xpath, tag, attribute, value, exact);
+            default:
+                return ios(xpath, tag, attribute, value, exact);
+        }
+    }
+
+    private static OptimizedBy web(By xpath, String tag, String attribute, String value, boolean exact) {
+        if (tag == null && exact && "id".equals(attribute)) {
+            return new OptimizedBy("id", By.id(value), xpath);
+        }
+        String selector = String.format("%s[%s%s=\"%s\"]", tag == null ? "" : tag, attribute, exact ? "" : "*", quoted(value));
+        return new OptimizedBy("css", By.cssSelector(selector), xpath);
+    }
+
+    private static OptimizedBy android(By xpath, String tag, String attribute, String value, boolean exact) {
+        if (tag == null && exact && "content-desc".equals(attribute)) {
+            return new OptimizedBy("accessibility id", MobileBy.AccessibilityId(value), xpath);
+        }
+        if (tag == null && exact && "resource-id".equals(attribute)) {
+            return new OptimizedBy("id", By.id(value), xpath);
+        }
+        String method;
+        switch (attribute) {
+            case "text":
+                method = exact ? "text" : "textContains";
+                break;
+            case "content-desc":
+                method = exact ? "description" : "descriptionContains";
+                break;
+            case "resource-id":
+                if (!exact) {
+                    return null;
+                }
+                method = "resourceId";
+                break;
+            default:
+                return null;
+        }
+        String selector = String.format("new UiSelector()%s.%s(\"%s\")",
+                tag == null ? "" : String.format(".className(\"%s\")", tag), method, quoted(value));
+        return new OptimizedBy("uiautomator", MobileBy.AndroidUIAutomator(selector), xpath);
+    }
+
+    private static OptimizedBy ios(By xpath, String tag, String attribute, String value, boolean exact) {
+        if (tag != null || !exact || !"name".equals(attribute)) {
+            return null;
+        }
+        return new OptimizedBy("accessibility id", MobileBy.AccessibilityId(value), xpath);
+    }
+
+    private static String quoted(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static void record(String rewrite) {
+        REWRITES.computeIfAbsent(rewrite, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * The faster By, and the XPath to use if the server does not support it.
+     */
+    private static class OptimizedBy extends By {
+        private final String rewrite;
+        private final By by;
+        private final By xpath;
+
+        private OptimizedBy(String rewrite, By by, By xpath) {
+            this.rewrite = rewrite;
+            this.by = by;
+            this.xpath = xpath;
+        }
+
+        @Override
+        public List<WebElement> findElements(SearchContext context) {
+            if (!UNSUPPORTED.contains(rewrite)) {
+                try {
+                    List<WebElement> elements = by.findElements(context);
+                    record(rewrite);
+                    return elements;
+                } catch (InvalidSelectorException | UnsupportedCommandException e) {
+                    if (UNSUPPORTED.add(rewrite)) {
+                        LOG.warn(String.format("Server does not support %s locators, using xpath instead", rewrite), e);
+                    }
+                    record(FALLBACK);
+                }
+            }
+            return xpath.findElements(context);
+        }
+
+        @Override
+        public String toString() {
+            return by.toString();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.salesforceiq.augmenteddriver.util.bys;
+
+import com.google.common.base.Preconditions;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the elements found by a by that are of one class, for the strategies that cannot filter by class.
+ *
+ * <p>
+ *     The class of each element is one more command, findElement stops at the first element of the class.
+ * </p>
+ */
+class OfClassBy extends By {
+    private final By by;
+    private final String tag;
+
+    OfClassBy(By by, String tag) {
+        this.by = Preconditions.checkNotNull(by);
+        this.tag = Preconditions.checkNotNull(tag);
+    }
+
+    @Override
+    public List<WebElement> findElements(SearchContext context) {
+        return by.findElements(context)
+                .stream()
+                .filter(element -> tag.equals(element.getTagName()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public WebElement findElement(SearchContext context) {
+        return by.findElements(context)
+                .stream()
+                .filter(element -> tag.equals(element.getTagName()))
+                .findFirst()
+                .orElseThrow(() -> new NoSuchElementException("Cannot locate an element using " + this));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s of class %s", by, tag);
+    }
+}
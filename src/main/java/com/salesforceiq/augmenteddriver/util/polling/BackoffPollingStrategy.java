@@ -0,0 +1,52 @@
+package com.salesforceiq.augmenteddriver.util.polling;
+
+import com.google.common.base.Preconditions;
+import org.openqa.selenium.By;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Polls fast at the beginning, and then slower and slower (exponentially) up to a max.
+ *
+ * <p>
+ *     Every sleep is randomized by +/- jitter, so many tests waiting at the same time do not hit the hub together.
+ * </p>
+ */
+public class BackoffPollingStrategy implements PollingStrategy {
+
+    private final long initialInMillis;
+    private final long maxInMillis;
+    private final double multiplier;
+    private final double jitter;
+
+    /**
+     * @param jitter between 0 and 1, fraction of the sleep that is randomized.
+     */
+    public BackoffPollingStrategy(long initialInMillis, long maxInMillis, double multiplier, double jitter) {
+        Preconditions.checkArgument(initialInMillis > 0 && initialInMillis <= maxInMillis);
+        Preconditions.checkArgument(multiplier >= 1);
+        Preconditions.checkArgument(jitter >= 0 && jitter < 1);
+        this.initialInMillis = initialInMillis;
+        this.maxInMillis = maxInMillis;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public Schedule start(By by) {
+        return (polls, elapsedInMillis) -> sleepFor(polls);
+    }
+
+    long sleepFor(int polls) {
+        double sleep = Math.min(maxInMillis, initialInMillis * Math.pow(multiplier, polls - 1));
+        if (jitter > 0) {
+            sleep = sleep * (1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter));
+        }
+        return Math.max(1, Math.round(sleep));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("backoff(%sms..%sms x%s +/-%s)", initialInMillis, maxInMillis, multiplier, jitter);
+    }
+}
@@ -0,0 +1,27 @@
+package com.salesforceiq.augmenteddriver.util.polling;
+
+import com.google.common.base.Preconditions;
+import org.openqa.selenium.By;
+
+/**
+ * Polls always at the same interval.
+ */
+public class FixedPollingStrategy implements PollingStrategy {
+
+    private final long intervalInMillis;
+
+    public FixedPollingStrategy(long intervalInMillis) {
+        Preconditions.checkArgument(intervalInMillis > 0);
+        this.intervalInMillis = intervalInMillis;
+    }
+
+    @Override
+    public Schedule start(By by) {
+        return (polls, elapsedInMillis) -> intervalInMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("fixed(%sms)", intervalInMillis);
+    }
+}
@@ -0,0 +1,71 @@
+package com.salesforceiq.augmenteddriver.util.polling;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.openqa.selenium.By;
+
+/**
+ * Learns from past waits how long each By usually takes, and does not poll until it is about to be ready.
+ *
+ * <p>
+ *     Keeps a moving average of how long the successful waits for each By took. A new wait for that By sleeps
+ *     most of that time first, and then polls as {@link BackoffPollingStrategy} does. Failed waits are not learned.
+ * </p>
+ */
+public class LearningPollingStrategy implements PollingStrategy {
+
+    private static final double WEIGHT = 0.3;
+    private static final double FIRST_SLEEP_RATIO = 0.8;
+
+    private final BackoffPollingStrategy backoff;
+    private final long maxFirstSleepInMillis;
+    private final Cache<String, Double> averages;
+
+    /**
+     * @param maxFirstSleepInMillis the most the first sleep can be, so a By that got faster is not slowed down.
+     */
+    public LearningPollingStrategy(BackoffPollingStrategy backoff, long maxFirstSleepInMillis) {
+        this.backoff = Preconditions.checkNotNull(backoff);
+        Preconditions.checkArgument(maxFirstSleepInMillis >= 0);
+        this.maxFirstSleepInMillis = maxFirstSleepInMillis;
+        this.averages = CacheBuilder.newBuilder().maximumSize(10000).build();
+    }
+
+    @Override
+    public Schedule start(By by) {
+        String key = by == null ? null : by.toString();
+        Double average = key == null ? null : averages.getIfPresent(key);
+        long firstSleep = average == null ? 0 : Math.min(maxFirstSleepInMillis, Math.round(average * FIRST_SLEEP_RATIO));
+        return new Schedule() {
+            @Override
+            public long nextSleepInMillis(int polls, long elapsedInMillis) {
+                if (elapsedInMillis < firstSleep) {
+                    return firstSleep - elapsedInMillis;
+                }
+                return backoff.sleepFor(polls);
+            }
+
+            @Override
+            public void finished(boolean succeeded, long elapsedInMillis) {
+                if (succeeded && key != null) {
+                    // Not atomic, losing one sample when two waits finish together is fine.
+                    Double previous = averages.getIfPresent(key);
+                    averages.put(key, previous == null ? elapsedInMillis : previous + WEIGHT * (elapsedInMillis - previous));
+                }
+            }
+        };
+    }
+
+    /**
+     * @return what was learned for the by, in milliseconds, or null if nothing.
+     */
+    public Double averageInMillis(By by) {
+        return averages.getIfPresent(by.toString());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("learning(%s entries, %s)", averages.size(), backoff);
+    }
+}
@@ -0,0 +1,40 @@
+package com.salesforceiq.augmenteddriver.util.polling;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * The polling strategy used by all the waits, set by PropertiesModule from POLLING_STRATEGY.
+ */
+public class PollingStrategies {
+
+    public static final String FIXED = "fixed";
+    public static final String BACKOFF = "backoff";
+    public static final String LEARNING = "learning";
+
+    private static volatile PollingStrategy DEFAULT = new FixedPollingStrategy(500);
+
+    public static PollingStrategy getDefault() {
+        return DEFAULT;
+    }
+
+    public static void setDefault(PollingStrategy strategy) {
+        DEFAULT = Preconditions.checkNotNull(strategy);
+    }
+
+    /**
+     * @param name fixed (every maxInMillis), backoff or learning.
+     */
+    public static PollingStrategy create(String name, long initialInMillis, long maxInMillis, double multiplier, double jitter) {
+        Preconditions.checkNotNull(name);
+        switch (name.toLowerCase()) {
+            case FIXED:
+                return new FixedPollingStrategy(maxInMillis);
+            case BACKOFF:
+                return new BackoffPollingStrategy(initialInMillis, maxInMillis, multiplier, jitter);
+            case LEARNING:
+                return new LearningPollingStrategy(new BackoffPollingStrategy(initialInMillis, maxInMillis, multiplier, jitter), 10 * maxInMillis);
+            default:
+                throw new IllegalArgumentException(String.format("Unknown polling strategy %s, use %s, %s or %s", name, FIXED, BACKOFF, LEARNING));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.salesforceiq.augmenteddriver.util.polling;
+
+import org.openqa.selenium.By;
+
+/**
+ * Decides how long a wait sleeps between polls.
+ */
+public interface PollingStrategy {
+
+    /**
+     * @param by what the wait is looking for, can be null.
+     * @return the schedule of one wait.
+     */
+    Schedule start(By by);
+
+    /**
+     * The polls of one wait, not thread safe.
+     */
+    interface Schedule {
+
+        /**
+         * @param polls how many polls were done so far (at least one).
+         * @param elapsedInMillis since the wait started.
+         * @return how many milliseconds to sleep before the next poll.
+         */
+        long nextSleepInMillis(int polls, long elapsedInMillis);
+
+        /**
+         * Called once when the wait finished.
+         */
+        default void finished(boolean succeeded, long elapsedInMillis) {
+        }
+    }
+}
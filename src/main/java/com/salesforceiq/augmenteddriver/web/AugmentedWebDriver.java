@@ -1,12 +1,29 @@
 package com.salesforceiq.augmenteddriver.web;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.CommandLatencies;
+import com.salesforceiq.augmenteddriver.util.bys.LocatorOptimizer;
 import com.google.inject.name.Named;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.internal.JsonToWebElementConverter;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Driver used for automation against web.
@@ -17,14 +34,107 @@ import java.net.URL;
  *     some reason, it only creates one at a time, and sometimes Sauce takes 40 seconds
  *     to create a new one.
  * </p>
+ * <p>
+ *     The searches of the driver and of its elements use the faster strategy {@link LocatorOptimizer} rewrites
+ *     simple XPaths to.
+ * </p>
  */
 public class AugmentedWebDriver extends RemoteWebDriver {
 
+    /**
+     * Commands after which the elements found before may not be there anymore, or be different.
+     */
+    private static final Set<String> DOM_CHANGING_COMMANDS = ImmutableSet.of(
+            DriverCommand.GET, DriverCommand.GO_BACK, DriverCommand.GO_FORWARD, DriverCommand.REFRESH,
+            DriverCommand.CLICK_ELEMENT, DriverCommand.SUBMIT_ELEMENT, DriverCommand.CLEAR_ELEMENT,
+            DriverCommand.SEND_KEYS_TO_ELEMENT, DriverCommand.SEND_KEYS_TO_ACTIVE_ELEMENT,
+            DriverCommand.CLICK, DriverCommand.DOUBLE_CLICK, DriverCommand.MOUSE_DOWN, DriverCommand.MOUSE_UP,
+            DriverCommand.MOVE_TO, DriverCommand.TOUCH_SINGLE_TAP, DriverCommand.TOUCH_DOUBLE_TAP,
+            DriverCommand.ACCEPT_ALERT, DriverCommand.DISMISS_ALERT,
+            DriverCommand.SWITCH_TO_FRAME, DriverCommand.SWITCH_TO_PARENT_FRAME, DriverCommand.SWITCH_TO_WINDOW,
+            DriverCommand.CLOSE);
+
+    private final CommandLatencies commandLatencies = CommandLatencies.forTest();
+    private final AtomicLong domEpoch = new AtomicLong();
+    private final ElementCache elementCache = new ElementCache(this);
     private AugmentedWebFunctions augmentedFunctions;
+    private long scriptTimeoutInMillis;
 
     public AugmentedWebDriver(@Named(PropertiesModule.REMOTE_ADDRESS) String remoteAddress,
                               DesiredCapabilities capabilities) throws MalformedURLException {
         super(new URL(remoteAddress), capabilities);
+        setElementConverter(new OptimizedElementConverter(this));
+    }
+
+    /**
+     * Creates the driver using the given transport, so many drivers can share the same connection pool.
+     */
+    public AugmentedWebDriver(@Named(PropertiesModule.REMOTE_ADDRESS) String remoteAddress,
+                              DesiredCapabilities capabilities,
+                              HttpClient.Factory httpClientFactory) throws MalformedURLException {
+        super(new HttpCommandExecutor(ImmutableMap.of(), new URL(remoteAddress), httpClientFactory), capabilities);
+        setElementConverter(new OptimizedElementConverter(this));
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return super.findElements(LocatorOptimizer.optimize(by, LocatorOptimizer.Target.WEB));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return super.findElement(LocatorOptimizer.optimize(by, LocatorOptimizer.Target.WEB));
+    }
+
+    /**
+     * Times every remote command.
+     *
+     * <p>
+     *     The session is created before the fields are initialized, so that command is only recorded for the run.
+     * </p>
+     */
+    @Override
+    protected Response execute(String driverCommand, Map<String, ?> parameters) {
+        long start = System.nanoTime();
+        try {
+            return super.execute(driverCommand, parameters);
+        } finally {
+            (commandLatencies == null ? CommandLatencies.RUN : commandLatencies).record(driverCommand, System.nanoTime() - start);
+            if (domEpoch != null && DOM_CHANGING_COMMANDS.contains(driverCommand)) {
+                domEpoch.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return a number that changes every time the driver does something that can change the page.
+     */
+    public long domEpoch() {
+        return domEpoch.get();
+    }
+
+    /**
+     * @return the elements found by this driver, only used if WEB_ELEMENT_CACHE is true.
+     */
+    public ElementCache elementCache() {
+        return elementCache;
+    }
+
+    /**
+     * @return the latencies of the commands sent by this driver.
+     */
+    public CommandLatencies commandLatencies() {
+        return commandLatencies;
+    }
+
+    /**
+     * Makes sure async scripts can run for at least the given time, only sends the command if it has to be raised.
+     */
+    public synchronized void ensureScriptTimeout(long millis) {
+        if (millis > scriptTimeoutInMillis) {
+            manage().timeouts().setScriptTimeout(millis, TimeUnit.MILLISECONDS);
+            scriptTimeoutInMillis = millis;
+        }
     }
 
     public AugmentedWebFunctions augmented() {
@@ -34,4 +144,35 @@ public class AugmentedWebDriver extends RemoteWebDriver {
     public void setAugmentedFunctions(AugmentedWebFunctions augmentedFunctions) {
         this.augmentedFunctions = augmentedFunctions;
     }
+
+    /**
+     * Creates the elements found, so their searches are optimized too.
+     */
+    private static class OptimizedElementConverter extends JsonToWebElementConverter {
+        private final RemoteWebDriver driver;
+
+        private OptimizedElementConverter(RemoteWebDriver driver) {
+            super(driver);
+            this.driver = driver;
+        }
+
+        @Override
+        protected RemoteWebElement newRemoteWebElement() {
+            RemoteWebElement element = new OptimizedWebElement();
+            element.setParent(driver);
+            return element;
+        }
+    }
+
+    private static class OptimizedWebElement extends RemoteWebElement {
+        @Override
+        public List<WebElement> findElements(By by) {
+            return super.findElements(LocatorOptimizer.optimize(by, LocatorOptimizer.Target.WEB));
+        }
+
+        @Override
+        public WebElement findElement(By by) {
+            return super.findElement(LocatorOptimizer.optimize(by, LocatorOptimizer.Target.WEB));
+        }
+    }
 }
@@ -8,11 +8,15 @@ import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.mobile.ios.AugmentedIOSElement;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
 import com.salesforceiq.augmenteddriver.util.AugmentedFunctions;
+import com.salesforceiq.augmenteddriver.util.LocatorMatch;
 import com.salesforceiq.augmenteddriver.util.WebDriverUtil;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebElement>, AugmentedWebOnlyFunctions {
@@ -21,16 +25,27 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
     private final int waitTimeInSeconds;
     private final AugmentedWebElementFactory augmentedWebElementFactory;
     private final AugmentedWebDriverProvider augmentedWebDriverProvider;
+    private final boolean browserSideWaits;
+    private final boolean elementCache;
+    private final long pageQuiescentIdleInMillis;
 
     @Inject
     public AugmentedWebFunctions(@Assisted SearchContext searchContext,
                                  @Named(PropertiesModule.WAIT_IN_SECONDS) String waitTimeInSeconds,
+                                 @Named(PropertiesModule.WEB_WAIT_MODE) String waitMode,
+                                 @Named(PropertiesModule.WEB_ELEMENT_CACHE) String elementCache,
+                                 @Named(PropertiesModule.PAGE_QUIESCENT_IDLE_IN_MILLIS) String pageQuiescentIdleInMillis,
                                  AugmentedWebDriverProvider augmentedWebDriverProvider,
                                  AugmentedWebElementFactory augmentedWebElementFactory) {
         this.searchContext = Preconditions.checkNotNull(searchContext);
         this.waitTimeInSeconds= Integer.valueOf(Preconditions.checkNotNull(waitTimeInSeconds));
         this.augmentedWebElementFactory = Preconditions.checkNotNull(augmentedWebElementFactory);
         this.augmentedWebDriverProvider = Preconditions.checkNotNull(augmentedWebDriverProvider);
+        Preconditions.checkArgument(BrowserSideWait.BROWSER.equals(waitMode) || BrowserSideWait.CLIENT.equals(waitMode),
+                String.format("%s should be %s or %s, got %s", PropertiesModule.WEB_WAIT_MODE, BrowserSideWait.BROWSER, BrowserSideWait.CLIENT, waitMode));
+        this.browserSideWaits = BrowserSideWait.BROWSER.equals(waitMode);
+        this.elementCache = Boolean.valueOf(Preconditions.checkNotNull(elementCache));
+        this.pageQuiescentIdleInMillis = Long.valueOf(Preconditions.checkNotNull(pageQuiescentIdleInMillis));
     }
 
     @Override
@@ -53,7 +68,7 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
     @Override
     public boolean isElementPresentImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementPresentAfter(by, 0);
+        return WebDriverUtil.isElementPresentImmediate(searchContext, by);
     }
 
     @Override
@@ -76,7 +91,7 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
     @Override
     public boolean isElementVisibleImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementVisibleAfter(by, 0);
+        return probe(by, BrowserSideWait.Condition.VISIBLE, () -> WebDriverUtil.isElementVisibleImmediate(searchContext, by));
     }
 
     @Override
@@ -99,7 +114,7 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
     @Override
     public boolean isElementClickableImmediate(By by) {
         Preconditions.checkNotNull(by);
-        return isElementClickableAfter(by, 0);
+        return probe(by, BrowserSideWait.Condition.CLICKABLE, () -> WebDriverUtil.isElementClickableImmediate(searchContext, by));
     }
 
     @Override
@@ -111,7 +126,8 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
     @Override
     public AugmentedWebElement findElementPresentAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementPresentAfter(searchContext, by, waitSeconds));
+        return augmentedWebElementFactory.create(waitFor(by, BrowserSideWait.Condition.PRESENT, null, waitSeconds,
+                () -> WebDriverUtil.findElementPresentAfter(searchContext, by, waitSeconds)));
     }
 
     @Override
@@ -123,7 +139,8 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
     @Override
     public AugmentedWebElement findElementVisibleAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementVisibleAfter(searchContext, by, waitSeconds));
+        return augmentedWebElementFactory.create(waitFor(by, BrowserSideWait.Condition.VISIBLE, null, waitSeconds,
+                () -> WebDriverUtil.findElementVisibleAfter(searchContext, by, waitSeconds)));
     }
 
     @Override
@@ -135,7 +152,8 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
     @Override
     public AugmentedWebElement findElementClickableAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementClickableAfter(searchContext, by, waitSeconds));
+        return augmentedWebElementFactory.create(waitFor(by, BrowserSideWait.Condition.CLICKABLE, null, waitSeconds,
+                () -> WebDriverUtil.findElementClickableAfter(searchContext, by, waitSeconds)));
     }
 
     @Override
@@ -159,7 +177,8 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
     public AugmentedWebElement findElementContainAfter(By by, String text, int waitInSeconds) {
         Preconditions.checkNotNull(by);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(text));
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementContainAfter(searchContext, by, text, waitInSeconds));
+        return augmentedWebElementFactory.create(waitFor(by, BrowserSideWait.Condition.CONTAINS, text, waitInSeconds,
+                () -> WebDriverUtil.findElementContainAfter(searchContext, by, text, waitInSeconds)));
     }
 
     @Override
@@ -207,6 +226,54 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public LocatorMatch<AugmentedWebElement> findAnyElementPresent(By... bys) {
+        return findAnyElementPresentAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public LocatorMatch<AugmentedWebElement> findAnyElementPresentAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAnyElementAfter(searchContext, bys, false, waitInSeconds)
+                .map(webElement -> augmentedWebElementFactory.create(webElement));
+    }
+
+    @Override
+    public LocatorMatch<AugmentedWebElement> findAnyElementVisible(By... bys) {
+        return findAnyElementVisibleAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public LocatorMatch<AugmentedWebElement> findAnyElementVisibleAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAnyElementAfter(searchContext, bys, true, waitInSeconds)
+                .map(webElement -> augmentedWebElementFactory.create(webElement));
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedWebElement>> findAllElementsPresent(By... bys) {
+        return findAllElementsPresentAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedWebElement>> findAllElementsPresentAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAllElementsAfter(searchContext, bys, false, waitInSeconds)
+                .stream()
+                .map(match -> match.map(webElement -> augmentedWebElementFactory.create(webElement)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedWebElement>> findAllElementsVisible(By... bys) {
+        return findAllElementsVisibleAfter(Arrays.asList(bys), waitTimeInSeconds);
+    }
+
+    @Override
+    public List<LocatorMatch<AugmentedWebElement>> findAllElementsVisibleAfter(List<By> bys, int waitInSeconds) {
+        return WebDriverUtil.findAllElementsAfter(searchContext, bys, true, waitInSeconds)
+                .stream()
+                .map(match -> match.map(webElement -> augmentedWebElementFactory.create(webElement)))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void waitElementToNotBePresent(By by) {
         waitElementToNotBePresentAfter(by, waitTimeInSeconds);
@@ -229,6 +296,67 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
         WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds);
     }
 
+    @Override
+    public CompletableFuture<AugmentedWebElement> findElementPresentAsync(By by) {
+        return findElementPresentAfterAsync(by, waitTimeInSeconds);
+    }
+
+    /**
+     * The async waits always poll from here, a browser side wait would hold a thread for the whole wait.
+     */
+    @Override
+    public CompletableFuture<AugmentedWebElement> findElementPresentAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementPresentAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedWebElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<AugmentedWebElement> findElementVisibleAsync(By by) {
+        return findElementVisibleAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<AugmentedWebElement> findElementVisibleAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementVisibleAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedWebElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<AugmentedWebElement> findElementClickableAsync(By by) {
+        return findElementClickableAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<AugmentedWebElement> findElementClickableAfterAsync(By by, int waitSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.thenApply(WebDriverUtil.findElementClickableAfterAsync(searchContext, by, waitSeconds),
+                webElement -> augmentedWebElementFactory.create(webElement));
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBePresentAsync(By by) {
+        return waitElementToNotBePresentAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBePresentAfterAsync(By by, int waitInSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.waitElementToNotBePresentAsync(searchContext, by, waitInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBeVisibleAsync(By by) {
+        return waitElementToNotBeVisibleAfterAsync(by, waitTimeInSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> waitElementToNotBeVisibleAfterAsync(By by, int waitInSeconds) {
+        Preconditions.checkNotNull(by);
+        return WebDriverUtil.waitElementToNotBeVisibleAsync(searchContext, by, waitInSeconds);
+    }
+
     @Override
     public AugmentedWebElement clickAndPresent(By click, By wait) {
         return clickAndPresentAfter(click, wait, waitTimeInSeconds);
@@ -289,4 +417,48 @@ public class AugmentedWebFunctions implements AugmentedFunctions<AugmentedWebEle
         AugmentedWebElement elementPresent = findElementPresent(by);
         javascriptExecutor.executeScript("arguments[0].scrollIntoView(true);", elementPresent.webElement());
     }
+
+    @Override
+    public void waitForPageQuiescent() {
+        waitForPageQuiescentAfter(waitTimeInSeconds);
+    }
+
+    @Override
+    public void waitForPageQuiescentAfter(int waitInSeconds) {
+        PageQuiescence.waitFor(augmentedWebDriverProvider.get(), pageQuiescentIdleInMillis, waitInSeconds);
+    }
+
+    /**
+     * Checks with one script if WEB_WAIT_MODE is browser and the by can be searched there, from here if not.
+     */
+    private boolean probe(By by, BrowserSideWait.Condition condition, Supplier<Boolean> clientSideProbe) {
+        if (!browserSideWaits || !BrowserSideWait.supports(by)) {
+            return clientSideProbe.get();
+        }
+        return BrowserSideWait.probe(augmentedWebDriverProvider.get(), searchContext, by, condition, null);
+    }
+
+    /**
+     * Waits in the browser if WEB_WAIT_MODE is browser and the by can be searched there, polls from here if not.
+     *
+     * <p>
+     *     If WEB_ELEMENT_CACHE is true the element found before for the same by is reused while it is still valid.
+     * </p>
+     */
+    private WebElement waitFor(By by, BrowserSideWait.Condition condition, String text, int waitInSeconds,
+                               Supplier<WebElement> clientSideWait) {
+        if (elementCache && condition != BrowserSideWait.Condition.CONTAINS) {
+            return augmentedWebDriverProvider.get().elementCache().find(searchContext, by, condition,
+                    () -> waitWithoutCache(by, condition, text, waitInSeconds, clientSideWait));
+        }
+        return waitWithoutCache(by, condition, text, waitInSeconds, clientSideWait);
+    }
+
+    private WebElement waitWithoutCache(By by, BrowserSideWait.Condition condition, String text, int waitInSeconds,
+                                        Supplier<WebElement> clientSideWait) {
+        if (!browserSideWaits || !BrowserSideWait.supports(by)) {
+            return clientSideWait.get();
+        }
+        return BrowserSideWait.waitFor(augmentedWebDriverProvider.get(), searchContext, by, condition, text, waitInSeconds);
+    }
 }
@@ -5,4 +5,12 @@ import org.openqa.selenium.By;
 public interface AugmentedWebOnlyFunctions {
     void scrollToBottom();
     void scrollToElement(By by);
+
+    /**
+     * Waits until the page is loaded and without activity (requests, timers, transitions) for
+     * PAGE_QUIESCENT_IDLE_IN_MILLIS, see {@link PageQuiescence}.
+     */
+    void waitForPageQuiescent();
+
+    void waitForPageQuiescentAfter(int waitInSeconds);
 }
@@ -0,0 +1,247 @@
+package com.salesforceiq.augmenteddriver.web;
+
+import com.google.common.base.Preconditions;
+import com.salesforceiq.augmenteddriver.util.BulkElementStates;
+import com.salesforceiq.augmenteddriver.util.TestBudget;
+import com.salesforceiq.augmenteddriver.util.WaitTelemetry;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits inside the browser, with one executeAsyncScript, instead of polling from here.
+ *
+ * <p>
+ *     The script checks the condition every time the DOM changes (MutationObserver) and every 100ms (for changes
+ *     that are not mutations, like CSS transitions), and answers with the element as soon as it is there, or with
+ *     null when the time is over. So a wait is one round trip to the hub instead of one per poll. The functions
+ *     that check the state of the elements are kept in the page (see {@link BulkElementStates#executeAsyncScript}),
+ *     so only the small wait script is sent every time.
+ * </p>
+ * <p>
+ *     If the page goes away while waiting (i.e. a click that navigates), the wait goes on in the new page for the
+ *     rest of the time.
+ * </p>
+ * <p>
+ *     Only the standard Bys can be translated to the browser, see {@link #supports(By)}.
+ * </p>
+ */
+public class BrowserSideWait {
+
+    /**
+     * Value of WEB_WAIT_MODE to wait in the browser.
+     */
+    public static final String BROWSER = "browser";
+
+    /**
+     * Value of WEB_WAIT_MODE to poll from the tests (default).
+     */
+    public static final String CLIENT = "client";
+
+    /**
+     * Extra time for the script to answer, on top of the wait, before the driver gives up on it.
+     */
+    private static final long SCRIPT_TIMEOUT_MARGIN_IN_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * How many times the wait starts again in a new page before giving up, i.e. redirects.
+     */
+    private static final int MAX_PAGE_CHANGES = 3;
+
+    public enum Condition {
+        PRESENT,
+        VISIBLE,
+        CLICKABLE,
+        CONTAINS
+    }
+
+    /**
+     * Javascript function find(), the elements under root that match the By. Needs the variables strategy, value and
+     * root.
+     */
+    static final String FIND_FUNCTION =
+            "function quote(string) { return '\"' + string.replace(/\\\\/g, '\\\\\\\\').replace(/\"/g, '\\\\\"') + '\"'; }\n" +
+            "function toArray(list) { return Array.prototype.slice.call(list); }\n" +
+            "function find() {\n" +
+            "  switch (strategy) {\n" +
+            "    case 'id': return toArray(root.querySelectorAll('[id=' + quote(value) + ']'));\n" +
+            "    case 'name': return toArray(root.querySelectorAll('[name=' + quote(value) + ']'));\n" +
+            "    case 'className': return toArray(root.getElementsByClassName(value));\n" +
+            "    case 'tagName': return toArray(root.getElementsByTagName(value));\n" +
+            "    case 'cssSelector': return toArray(root.querySelectorAll(value));\n" +
+            "    case 'linkText': case 'partialLinkText':\n" +
+            "      return toArray(root.getElementsByTagName('a')).filter(function(link) {\n" +
+            "        var linkText = (link.innerText || link.textContent || '').trim();\n" +
+            "        return strategy === 'linkText' ? linkText === value : linkText.indexOf(value) >= 0;\n" +
+            "      });\n" +
+            "    case 'xpath':\n" +
+            "      var snapshot = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), result = [];\n" +
+            "      for (var index = 0; index < snapshot.snapshotLength; index++) { result.push(snapshot.snapshotItem(index)); }\n" +
+            "      return result.filter(function(node) { return node.nodeType === 1; });\n" +
+            "  }\n" +
+            "}\n";
+
+    /**
+     * Javascript function match(), the first element matching the condition or null. Needs the variables strategy,
+     * value, condition, text and root, and the functions of {@link BulkElementStates#STATE_FUNCTIONS}.
+     */
+    private static final String MATCH_FUNCTION = FIND_FUNCTION +
+            "function textOf(element) {\n" +
+            "  var tag = element.tagName.toLowerCase();\n" +
+            "  return tag === 'input' || tag === 'textarea' ? element.value || '' : element.innerText || element.textContent || '';\n" +
+            "}\n" +
+            "function match() {\n" +
+            "  var elements = find();\n" +
+            "  if (condition === 'CONTAINS') { return elements.length && textOf(elements[0]).indexOf(text) >= 0 ? elements[0] : null; }\n" +
+            "  for (var index = 0; index < elements.length; index++) {\n" +
+            "    var element = elements[index];\n" +
+            "    if (condition === 'PRESENT' || (visible(element) && (condition === 'VISIBLE' || enabled(element)))) { return element; }\n" +
+            "  }\n" +
+            "  return null;\n" +
+            "}\n";
+
+    private static final String SCRIPT =
+            "var strategy = arguments[0], value = arguments[1], condition = arguments[2], text = arguments[3],\n" +
+            "    timeout = arguments[4], root = arguments[5] || document, callback = arguments[arguments.length - 1];\n" +
+            MATCH_FUNCTION +
+            "var done = false, observer = null, interval = null, timer = null;\n" +
+            "function finish(result) {\n" +
+            "  if (done) { return; }\n" +
+            "  done = true;\n" +
+            "  if (observer) { observer.disconnect(); }\n" +
+            "  clearInterval(interval);\n" +
+            "  clearTimeout(timer);\n" +
+            "  callback(result);\n" +
+            "}\n" +
+            "function check() {\n" +
+            "  if (done) { return; }\n" +
+            "  try { var found = match(); if (found) { finish(found); } } catch (e) { finish({error: String(e)}); }\n" +
+            "}\n" +
+            "check();\n" +
+            "if (done) { return; }\n" +
+            "observer = new MutationObserver(check);\n" +
+            "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});\n" +
+            "interval = setInterval(check, 100);\n" +
+            "timer = setTimeout(function() { finish(null); }, timeout);\n";
+
+    private static final String PROBE_SCRIPT =
+            "var strategy = arguments[0], value = arguments[1], condition = arguments[2], text = arguments[3],\n" +
+            "    root = arguments[4] || document;\n" +
+            MATCH_FUNCTION +
+            "return match() !== null;\n";
+
+    /**
+     * @return whether the by can be searched by the script (id, name, className, tagName, cssSelector, xpath,
+     *         linkText and partialLinkText).
+     */
+    public static boolean supports(By by) {
+        return strategy(by) != null;
+    }
+
+    /**
+     * Waits in the browser until an element matching the condition is found.
+     *
+     * @param context where to search, the driver or an element.
+     * @param text only for {@link Condition#CONTAINS}.
+     * @throws TimeoutException if the element does not match the condition in time.
+     */
+    public static WebElement waitFor(AugmentedWebDriver driver, SearchContext context, By by, Condition condition,
+                                     String text, int timeoutInSeconds) {
+        Preconditions.checkNotNull(driver);
+        Preconditions.checkNotNull(context);
+        Preconditions.checkNotNull(condition);
+        String strategy = strategy(by);
+        Preconditions.checkArgument(strategy != null, "Cannot wait in the browser for " + by);
+        String value = value(by, strategy);
+        long timeoutInMillis = TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        long effectiveTimeoutInMillis = TestBudget.timeoutInMillis(timeoutInMillis);
+        driver.ensureScriptTimeout(effectiveTimeoutInMillis + SCRIPT_TIMEOUT_MARGIN_IN_MILLIS);
+
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = execute(driver, context, strategy, value, condition, text, start, effectiveTimeoutInMillis);
+        } finally {
+            long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            TestBudget.record(by, elapsedInMillis, result instanceof WebElement);
+            WaitTelemetry.RUN.record(by, elapsedInMillis, timeoutInMillis, result instanceof WebElement);
+        }
+        if (result == null && effectiveTimeoutInMillis < timeoutInMillis) {
+            throw TestBudget.current().exceeded();
+        }
+        if (result instanceof WebElement) {
+            return (WebElement) result;
+        }
+        if (result instanceof Map) {
+            throw new InvalidSelectorException(String.format("Cannot search %s in the browser: %s", by, ((Map<?, ?>) result).get("error")));
+        }
+        throw new TimeoutException(String.format("Element %s is not %s after %s seconds",
+                by, condition.name().toLowerCase(), timeoutInSeconds));
+    }
+
+    /**
+     * Runs the wait script, again in the new page if the page went away while waiting, until the time is over.
+     */
+    private static Object execute(AugmentedWebDriver driver, SearchContext context, String strategy, String value,
+                                  Condition condition, String text, long start, long timeoutInMillis) {
+        for (int pageChanges = 0; ; pageChanges++) {
+            long remainingInMillis = timeoutInMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            try {
+                return BulkElementStates.executeAsyncScript(driver, SCRIPT, strategy, value, condition.name(),
+                        text == null ? "" : text, Math.max(0, remainingInMillis), context instanceof WebElement ? context : null);
+            } catch (TimeoutException | StaleElementReferenceException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                if (pageChanges >= MAX_PAGE_CHANGES || TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= timeoutInMillis) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks once in the browser, with one command, if an element matches the condition.
+     *
+     * @return false also if the element went away or the script failed.
+     */
+    public static boolean probe(AugmentedWebDriver driver, SearchContext context, By by, Condition condition, String text) {
+        Preconditions.checkNotNull(driver);
+        Preconditions.checkNotNull(context);
+        Preconditions.checkNotNull(condition);
+        String strategy = strategy(by);
+        Preconditions.checkArgument(strategy != null, "Cannot search in the browser for " + by);
+        try {
+            return Boolean.TRUE.equals(BulkElementStates.executeScript(driver, PROBE_SCRIPT, strategy, value(by, strategy),
+                    condition.name(), text == null ? "" : text, context instanceof WebElement ? context : null));
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    static String value(By by, String strategy) {
+        return by.toString().substring(strategy.length() + 5);
+    }
+
+    /**
+     * The Bys of Selenium print themselves as By.strategy: value.
+     */
+    static String strategy(By by) {
+        if (by == null) {
+            return null;
+        }
+        String description = by.toString();
+        for (String strategy : new String[] {"id", "name", "className", "tagName", "cssSelector", "xpath", "linkText", "partialLinkText"}) {
+            if (description.startsWith("By." + strategy + ": ")) {
+                return strategy;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.salesforceiq.augmenteddriver.web;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.salesforceiq.augmenteddriver.util.BulkElementStates;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Elements already found by the driver, so looking up the same By again does not go back to the server.
+ *
+ * <p>
+ *     The entries are keyed by search context and By, and belong to a DOM epoch of the driver: navigating, clicking,
+ *     typing or switching frames/windows starts a new one and drops them. Changes the driver does not see (scripts,
+ *     timers, XHRs) are counted by a MutationObserver injected in the page.
+ * </p>
+ * <p>
+ *     A hit costs one script, that reads the counter and checks the element is still attached and in the asked
+ *     state. If the page changed since the element was found, the same script also checks the element still matches
+ *     the By, and it is only looked up again if it does not pass. Bys the script cannot search for are looked up
+ *     again whenever the page changed.
+ * </p>
+ */
+public class ElementCache {
+
+    private static final long MAXIMUM_SIZE = 500;
+
+    /**
+     * Returns the mutation counter of the page, or -1 if the element is no longer valid.
+     */
+    private static final String CHECK_SCRIPT =
+            "var element = arguments[0], condition = arguments[1], known = arguments[2], strategy = arguments[3],\n" +
+            "    value = arguments[4], root = arguments[5] || document;\n" +
+            BrowserSideWait.FIND_FUNCTION +
+            "if (!window.__augmentedMutations) {\n" +
+            "  var counter = window.__augmentedMutations = {count: 0};\n" +
+            "  new MutationObserver(function(records) { counter.count += records.length; })\n" +
+            "      .observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});\n" +
+            "}\n" +
+            "if (!document.documentElement.contains(element)) { return -1; }\n" +
+            "if (condition !== 'PRESENT' && (!visible(element) || (condition === 'CLICKABLE' && !enabled(element)))) { return -1; }\n" +
+            "var count = window.__augmentedMutations.count;\n" +
+            "if (count !== known && (!strategy || find().indexOf(element) < 0)) { return -1; }\n" +
+            "return count;\n";
+
+    private final AugmentedWebDriver driver;
+    private final Cache<Key, Entry> entries = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidated = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ElementCache(AugmentedWebDriver driver) {
+        this.driver = Preconditions.checkNotNull(driver);
+    }
+
+    /**
+     * Returns the cached element if it is still valid for the condition, if not it is looked up and cached.
+     *
+     * @param condition state the element has to be in, CONTAINS is not supported.
+     * @param lookup how to find the element when it is not cached.
+     */
+    public WebElement find(SearchContext context, By by, BrowserSideWait.Condition condition, Supplier<WebElement> lookup) {
+        Preconditions.checkNotNull(context);
+        Preconditions.checkNotNull(by);
+        Preconditions.checkArgument(condition != BrowserSideWait.Condition.CONTAINS, "Cannot cache elements by text");
+        Key key = new Key(context, by);
+        long epoch = driver.domEpoch();
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.epoch == epoch) {
+            long mutations = check(context, by, entry, condition);
+            if (mutations >= 0) {
+                (mutations == entry.mutations ? hits : revalidated).incrementAndGet();
+                entries.put(key, new Entry(entry.element, epoch, mutations));
+                return entry.element;
+            }
+            stale.incrementAndGet();
+        }
+        misses.incrementAndGet();
+        WebElement element = lookup.get();
+        entries.put(key, new Entry(element, epoch, -1));
+        return element;
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    public long lookups() {
+        return hits.get() + revalidated.get() + misses.get();
+    }
+
+    /**
+     * @return the part of the lookups answered from the cache, between 0 and 1.
+     */
+    public double hitRate() {
+        long lookups = lookups();
+        return lookups == 0 ? 0 : (double) (hits.get() + revalidated.get()) / lookups;
+    }
+
+    public String report() {
+        return String.format("%s lookups, %.1f%% hits (%s re-validated after changes in the page), %s stale",
+                lookups(), hitRate() * 100, revalidated.get(), stale.get());
+    }
+
+    private long check(SearchContext context, By by, Entry entry, BrowserSideWait.Condition condition) {
+        String strategy = BrowserSideWait.strategy(by);
+        try {
+            Object result = BulkElementStates.executeScript(driver, CHECK_SCRIPT, entry.element, condition.name(),
+                    entry.mutations, strategy, strategy == null ? null : BrowserSideWait.value(by, strategy),
+                    context instanceof WebElement ? context : null);
+            return result instanceof Number ? ((Number) result).longValue() : -1;
+        } catch (StaleElementReferenceException e) {
+            return -1;
+        }
+    }
+
+    private static class Key {
+        private final SearchContext context;
+        private final By by;
+
+        private Key(SearchContext context, By by) {
+            this.context = context;
+            this.by = by;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return context.equals(key.context) && by.equals(key.by);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(context, by);
+        }
+    }
+
+    private static class Entry {
+        private final WebElement element;
+        private final long epoch;
+        private final long mutations;
+
+        private Entry(WebElement element, long epoch, long mutations) {
+            this.element = element;
+            this.epoch = epoch;
+            this.mutations = mutations;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.salesforceiq.augmenteddriver.web;
+
+import com.google.common.base.Preconditions;
+import com.salesforceiq.augmenteddriver.util.TestBudget;
+import com.salesforceiq.augmenteddriver.util.WaitTelemetry;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits, with one executeAsyncScript, until the page stops doing things.
+ *
+ * <p>
+ *     The first time it runs in a page it instruments it to count the XHR and fetch requests in flight, the pending
+ *     timers due within the idle window (longer ones, like polling, are ignored) and the running CSS transitions and
+ *     animations (infinite ones are ignored). The page is quiescent when document.readyState is complete and there
+ *     was no activity during the idle window.
+ * </p>
+ * <p>
+ *     Requests that started before the page was instrumented are not seen, the first wait in a page lasts at least
+ *     the idle window. Browsers without document.getAnimations only see the CSS transitions and animations by their
+ *     events, there the infinite ones are told by their animation-iteration-count.
+ * </p>
+ * <p>
+ *     If the page goes away while waiting (i.e. a click that navigates), the wait goes on in the new page for the
+ *     rest of the time.
+ * </p>
+ */
+public class PageQuiescence {
+
+    private static final long SCRIPT_TIMEOUT_MARGIN_IN_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private static final String WAITED_FOR = "page quiescent";
+
+    /**
+     * How many times the wait starts again in a new page before giving up, i.e. redirects.
+     */
+    private static final int MAX_PAGE_CHANGES = 3;
+
+    private static final String SCRIPT =
+            "var idle = arguments[0], timeout = arguments[1], callback = arguments[arguments.length - 1];\n" +
+            "var activity = window.__augmentedActivity;\n" +
+            "if (!activity) {\n" +
+            "  activity = window.__augmentedActivity = {requests: 0, timers: {}, timerCount: 0, animations: 0,\n" +
+            "      last: Date.now(), timerLimit: idle, setTimeout: window.setTimeout, clearTimeout: window.clearTimeout};\n" +
+            "  var touch = function() { activity.last = Date.now(); };\n" +
+            "  var finished = function() { activity.requests = Math.max(0, activity.requests - 1); touch(); };\n" +
+            "  var send = XMLHttpRequest.prototype.send;\n" +
+            "  XMLHttpRequest.prototype.send = function() {\n" +
+            "    activity.requests++;\n" +
+            "    touch();\n" +
+            "    this.addEventListener('loadend', finished);\n" +
+            "    try { return send.apply(this, arguments); } catch (e) { this.removeEventListener('loadend', finished); finished(); throw e; }\n" +
+            "  };\n" +
+            "  if (window.fetch) {\n" +
+            "    var fetch = window.fetch;\n" +
+            "    window.fetch = function() {\n" +
+            "      activity.requests++;\n" +
+            "      touch();\n" +
+            "      try {\n" +
+            "        return fetch.apply(this, arguments).then(\n" +
+            "            function(response) { finished(); return response; }, function(error) { finished(); throw error; });\n" +
+            "      } catch (e) { finished(); throw e; }\n" +
+            "    };\n" +
+            "  }\n" +
+            "  window.setTimeout = function(handler, delay) {\n" +
+            "    if (typeof handler !== 'function' || (delay || 0) > activity.timerLimit) {\n" +
+            "      return activity.setTimeout.apply(window, arguments);\n" +
+            "    }\n" +
+            "    var args = Array.prototype.slice.call(arguments), id;\n" +
+            "    args[0] = function() {\n" +
+            "      if (activity.timers[id]) { delete activity.timers[id]; activity.timerCount--; touch(); }\n" +
+            "      return handler.apply(this, arguments);\n" +
+            "    };\n" +
+            "    id = activity.setTimeout.apply(window, args);\n" +
+            "    activity.timers[id] = true;\n" +
+            "    activity.timerCount++;\n" +
+            "    return id;\n" +
+            "  };\n" +
+            "  window.clearTimeout = function(id) {\n" +
+            "    if (activity.timers[id]) { delete activity.timers[id]; activity.timerCount--; }\n" +
+            "    return activity.clearTimeout.apply(window, arguments);\n" +
+            "  };\n" +
+            "  var key = function(event) { return event.type.charAt(0) + ':' + (event.animationName || event.propertyName); };\n" +
+            "  var infinite = function(event) {\n" +
+            "    if (event.type.charAt(0) !== 'a' || !window.getComputedStyle) { return false; }\n" +
+            "    var style = window.getComputedStyle(event.target), names = (style.animationName || '').split(','),\n" +
+            "        counts = (style.animationIterationCount || '').split(','), index = 0;\n" +
+            "    for (var i = 0; i < names.length; i++) { if (names[i].trim() === event.animationName) { index = i; break; } }\n" +
+            "    return (counts[index % counts.length] || '').trim() === 'infinite';\n" +
+            "  };\n" +
+            "  var started = function(event) {\n" +
+            "    if (infinite(event)) { return; }\n" +
+            "    var running = event.target.__augmentedRunning = event.target.__augmentedRunning || {};\n" +
+            "    if (!running[key(event)]) { running[key(event)] = true; activity.animations++; touch(); }\n" +
+            "  };\n" +
+            "  var ended = function(event) {\n" +
+            "    var running = event.target.__augmentedRunning;\n" +
+            "    if (running && running[key(event)]) {\n" +
+            "      delete running[key(event)];\n" +
+            "      activity.animations = Math.max(0, activity.animations - 1);\n" +
+            "      touch();\n" +
+            "    }\n" +
+            "  };\n" +
+            "  ['transitionrun', 'animationstart'].forEach(function(type) { document.addEventListener(type, started, true); });\n" +
+            "  ['transitionend', 'transitioncancel', 'animationend', 'animationcancel'].forEach(function(type) {\n" +
+            "    document.addEventListener(type, ended, true);\n" +
+            "  });\n" +
+            "}\n" +
+            "activity.timerLimit = idle;\n" +
+            "function animations() {\n" +
+            "  if (!document.getAnimations) { return activity.animations; }\n" +
+            "  return document.getAnimations().filter(function(animation) {\n" +
+            "    var timing = animation.effect && animation.effect.getComputedTiming ? animation.effect.getComputedTiming() : {};\n" +
+            "    return animation.playState === 'running' && timing.iterations !== Infinity;\n" +
+            "  }).length;\n" +
+            "}\n" +
+            "var start = Date.now(), idleSince = null;\n" +
+            "function check() {\n" +
+            "  var now = Date.now(), state = {readyState: document.readyState, requests: activity.requests,\n" +
+            "      timers: activity.timerCount, animations: animations(), quiescent: false};\n" +
+            "  if (state.readyState === 'complete' && !state.requests && !state.timers && !state.animations) {\n" +
+            "    idleSince = Math.max(idleSince === null ? now : idleSince, activity.last);\n" +
+            "    if (now - idleSince >= idle) { state.quiescent = true; callback(state); return; }\n" +
+            "  } else {\n" +
+            "    idleSince = null;\n" +
+            "  }\n" +
+            "  if (now - start >= timeout) { callback(state); return; }\n" +
+            "  activity.setTimeout.call(window, check, 50);\n" +
+            "}\n" +
+            "check();\n";
+
+    /**
+     * Waits until the page is loaded and had no activity for idleInMillis.
+     *
+     * @throws TimeoutException with what was still going on if it does not happen in time.
+     */
+    public static void waitFor(AugmentedWebDriver driver, long idleInMillis, int timeoutInSeconds) {
+        Preconditions.checkNotNull(driver);
+        Preconditions.checkArgument(idleInMillis >= 0);
+        long timeoutInMillis = TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        long effectiveTimeoutInMillis = TestBudget.timeoutInMillis(timeoutInMillis);
+        driver.ensureScriptTimeout(effectiveTimeoutInMillis + SCRIPT_TIMEOUT_MARGIN_IN_MILLIS);
+
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = execute(driver, idleInMillis, start, effectiveTimeoutInMillis);
+        } finally {
+            long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            TestBudget.record(WAITED_FOR, elapsedInMillis, isQuiescent(result));
+            WaitTelemetry.RUN.record(WAITED_FOR, elapsedInMillis, timeoutInMillis, isQuiescent(result));
+        }
+        if (isQuiescent(result)) {
+            return;
+        }
+        if (effectiveTimeoutInMillis < timeoutInMillis) {
+            throw TestBudget.current().exceeded();
+        }
+        throw new TimeoutException(String.format("Page not quiescent after %s seconds: %s", timeoutInSeconds, result));
+    }
+
+    /**
+     * Runs the script, again in the new page if the page went away while waiting, until the time is over.
+     */
+    private static Object execute(AugmentedWebDriver driver, long idleInMillis, long start, long timeoutInMillis) {
+        for (int pageChanges = 0; ; pageChanges++) {
+            long remainingInMillis = timeoutInMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            try {
+                return driver.executeAsyncScript(SCRIPT, idleInMillis, Math.max(0, remainingInMillis));
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                if (pageChanges >= MAX_PAGE_CHANGES || TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= timeoutInMillis) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isQuiescent(Object result) {
+        return result instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) result).get("quiescent"));
+    }
+}
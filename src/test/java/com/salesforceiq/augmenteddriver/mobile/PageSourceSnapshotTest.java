@@ -0,0 +1,75 @@
+package com.salesforceiq.augmenteddriver.mobile;
+
+import com.google.common.collect.Lists;
+import com.salesforceiq.augmenteddriver.util.bys.AndroidBys;
+import com.salesforceiq.augmenteddriver.util.bys.LocatorOptimizer;
+import io.appium.java_client.MobileBy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+
+import java.util.List;
+
+public class PageSourceSnapshotTest {
+
+    private static final String ANDROID_SOURCE =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<hierarchy rotation=\"0\">" +
+            "<android.widget.FrameLayout class=\"android.widget.FrameLayout\" resource-id=\"\" text=\"\" content-desc=\"\" bounds=\"[0,0][1080,1920]\">" +
+            "<android.widget.TextView class=\"android.widget.TextView\" resource-id=\"com.app:id/title\" text=\"Inbox\" content-desc=\"\" bounds=\"[0,0][1080,100]\"/>" +
+            "<android.widget.TextView class=\"android.widget.TextView\" resource-id=\"com.app:id/row\" text=\"Hello\" content-desc=\"\" bounds=\"[0,100][1080,200]\"/>" +
+            "<android.widget.TextView class=\"android.widget.TextView\" resource-id=\"com.app:id/row\" text=\"Hello again\" content-desc=\"\" bounds=\"[0,200][1080,200]\"/>" +
+            "<android.widget.ImageButton class=\"android.widget.ImageButton\" resource-id=\"\" text=\"\" content-desc=\"Compose\" enabled=\"false\" bounds=\"[900,1700][1000,1800]\"/>" +
+            "</android.widget.FrameLayout>" +
+            "</hierarchy>";
+
+    private final List<By> resolved = Lists.newArrayList();
+    private PageSourceSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        SearchContext device = new SearchContext() {
+            @Override
+            public List<WebElement> findElements(By by) {
+                throw new AssertionError("Searches are local");
+            }
+
+            @Override
+            public WebElement findElement(By by) {
+                resolved.add(by);
+                return new RemoteWebElement();
+            }
+        };
+        snapshot = PageSourceSnapshot.parse(device, ANDROID_SOURCE, LocatorOptimizer.Target.ANDROID);
+    }
+
+    @Test
+    public void answersTheSearchesLocally() {
+        Assert.assertEquals(6, snapshot.size());
+        Assert.assertEquals(2, snapshot.findElements(By.id("row")).size());
+        Assert.assertEquals("Inbox", snapshot.findElements(By.id("com.app:id/title")).get(0).getText());
+        Assert.assertEquals(3, snapshot.findElements(By.className("android.widget.TextView")).size());
+        Assert.assertFalse(snapshot.findElements(MobileBy.AccessibilityId("Compose")).get(0).isEnabled());
+        Assert.assertTrue(snapshot.isElementPresent(AndroidBys.textViewWithText("Hello")));
+        Assert.assertEquals(2, snapshot.findElements(AndroidBys.textViewContainsText("Hello")).size());
+        Assert.assertFalse(snapshot.isElementVisible(AndroidBys.textViewWithText("Hello again")));
+        Assert.assertFalse(PageSourceSnapshot.supports(MobileBy.AndroidUIAutomator("new UiSelector().text(\"Inbox\")")));
+        Assert.assertTrue(resolved.isEmpty());
+    }
+
+    @Test
+    public void resolvesWithTheMostSpecificLocator() {
+        snapshot.findElements(By.id("title")).get(0).resolve();
+        snapshot.findElements(MobileBy.AccessibilityId("Compose")).get(0).resolve();
+        PageSourceSnapshot.SnapshotElement again = snapshot.findElements(AndroidBys.textViewWithText("Hello again")).get(0);
+        again.resolve();
+        again.resolve();
+
+        Assert.assertEquals(Lists.newArrayList(By.id("com.app:id/title"), MobileBy.AccessibilityId("Compose"),
+                By.xpath("/hierarchy[1]/android.widget.FrameLayout[1]/android.widget.TextView[3]")), resolved);
+    }
+}
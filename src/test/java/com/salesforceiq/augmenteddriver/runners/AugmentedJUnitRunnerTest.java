@@ -0,0 +1,73 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+import com.salesforceiq.augmenteddriver.annotations.GuiceModules;
+import com.salesforceiq.augmenteddriver.annotations.SharedModule;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AugmentedJUnitRunnerTest {
+
+    private static final AtomicInteger CONFIGURED = new AtomicInteger();
+
+    @Test
+    public void sharedModulesAreConfiguredOnce() throws Exception {
+        SampleTest first = (SampleTest) new AugmentedJUnitRunner(SampleTest.class).createTest();
+        SampleTest second = (SampleTest) new AugmentedJUnitRunner(SampleTest.class).createTest();
+
+        Assert.assertEquals(1, CONFIGURED.get());
+        Assert.assertEquals("shared", first.value);
+        Assert.assertEquals("shared", second.value);
+    }
+
+    @Test
+    public void testModulesAreNotShared() throws Exception {
+        AugmentedJUnitRunner runner = new AugmentedJUnitRunner(SampleTest.class);
+        SampleTest first = (SampleTest) runner.createTest();
+        SampleTest second = (SampleTest) runner.createTest();
+
+        Assert.assertNotNull(first.state);
+        Assert.assertNotSame(first.state, second.state);
+    }
+
+    @SharedModule
+    public static class CountingModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            CONFIGURED.incrementAndGet();
+            bind(String.class).annotatedWith(Names.named("VALUE")).toInstance("shared");
+        }
+    }
+
+    public static class PerTestModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            bind(PerTestState.class);
+        }
+    }
+
+    @Singleton
+    public static class PerTestState {
+    }
+
+    @GuiceModules({CountingModule.class, PerTestModule.class})
+    public static class SampleTest {
+
+        @Inject
+        @Named("VALUE")
+        private String value;
+
+        @Inject
+        private PerTestState state;
+
+        @Test
+        public void nothing() {
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import io.appium.java_client.android.AndroidDriver;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.net.URL;
+
+public class GestureTest {
+
+    private FakeWebDriverServer server;
+    private AndroidDriver<WebElement> driver;
+
+    @Before
+    public void setUp() throws Exception {
+        FakeElement root = new FakeElement("hierarchy").withSize(1080, 1920)
+                .withChildren(new FakeElement("android.widget.Button").withAttribute("resource-id", "send"));
+        server = new FakeWebDriverServer(0, root).start();
+        driver = new AndroidDriver<>(new URL(server.getAddress()), DesiredCapabilities.android());
+    }
+
+    @After
+    public void tearDown() {
+        driver.quit();
+        server.stop();
+    }
+
+    @Test
+    public void sendsAllTheStepsInOneCommand() {
+        WebElement send = driver.findElement(By.id("send"));
+        long before = server.getCommandCount();
+
+        Gesture gesture = Gesture.on(driver).swipe(540, 1500, 540, 300, 1000).tap(send, 5, 5, 500);
+        gesture.perform();
+
+        Assert.assertEquals(7, gesture.steps());
+        Assert.assertEquals(before + 1, server.getCommandCount());
+    }
+
+    @Test
+    public void fetchesTheWindowSizeOncePerSession() {
+        long before = server.getCommandCount();
+
+        Assert.assertEquals(new Dimension(1080, 1920), ScreenGeometry.windowSize(driver));
+        Assert.assertEquals(new Dimension(1080, 1920), ScreenGeometry.windowSize(driver));
+        Assert.assertEquals(before + 1, server.getCommandCount());
+
+        ScreenGeometry.invalidate(driver);
+        ScreenGeometry.windowSize(driver);
+        Assert.assertEquals(before + 2, server.getCommandCount());
+    }
+}
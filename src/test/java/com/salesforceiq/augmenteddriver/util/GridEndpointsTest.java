@@ -0,0 +1,82 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The state of the hubs is kept per JVM, so every test uses its own addresses.
+ */
+public class GridEndpointsTest {
+
+    @Test
+    public void leastLoadedByWeight() throws InterruptedException {
+        GridEndpoints endpoints = new GridEndpoints("http://weight1/wd/hub|2, http://weight2/wd/hub|1", "3", "60");
+
+        Assert.assertEquals("http://weight1/wd/hub", endpoints.acquire().getAddress());
+        Assert.assertEquals("http://weight2/wd/hub", endpoints.acquire().getAddress());
+        Assert.assertEquals("http://weight1/wd/hub", endpoints.acquire().getAddress());
+        Assert.assertEquals("http://weight1/wd/hub", endpoints.acquire().getAddress());
+    }
+
+    @Test
+    public void fullHubsAreSkipped() throws InterruptedException {
+        GridEndpoints endpoints = new GridEndpoints("http://full1/wd/hub|10|1,http://full2/wd/hub", "3", "60");
+
+        GridEndpoints.Lease first = endpoints.acquire();
+        Assert.assertEquals("http://full1/wd/hub", first.getAddress());
+        Assert.assertEquals("http://full2/wd/hub", endpoints.acquire().getAddress());
+        first.release();
+        Assert.assertEquals("http://full1/wd/hub", endpoints.acquire().getAddress());
+    }
+
+    @Test
+    public void maxSessionsAreSharedByAllTheInstances() throws InterruptedException {
+        String remoteAddresses = "http://shared1/wd/hub|10|1,http://shared2/wd/hub";
+        GridEndpoints endpoints = new GridEndpoints(remoteAddresses, "3", "60");
+        GridEndpoints other = new GridEndpoints(remoteAddresses, "3", "60");
+
+        Assert.assertEquals("http://shared1/wd/hub", endpoints.acquire().getAddress());
+        Assert.assertEquals("http://shared2/wd/hub", other.acquire().getAddress());
+    }
+
+    @Test
+    public void failingHubIsNotUsed() throws InterruptedException {
+        GridEndpoints endpoints = new GridEndpoints("http://failing1/wd/hub|10,http://failing2/wd/hub", "2", "60");
+
+        endpoints.acquire().failed();
+        endpoints.acquire().failed();
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals("http://failing2/wd/hub", endpoints.acquire().getAddress());
+        }
+        Assert.assertTrue(endpoints.report().contains("OPEN"));
+    }
+
+    @Test
+    public void onlyTheProbeIsTriedAfterTheCooldown() throws InterruptedException {
+        GridEndpoints endpoints = new GridEndpoints("http://probe1/wd/hub|10,http://probe2/wd/hub", "1", "0");
+        ImmutableSet<String> onlyFirst = ImmutableSet.of("http://probe2/wd/hub");
+        ImmutableSet<String> onlySecond = ImmutableSet.of("http://probe1/wd/hub");
+        endpoints.acquire(onlySecond);
+        endpoints.acquire(onlySecond);
+
+        GridEndpoints.Lease before = endpoints.acquire(onlyFirst);
+        before.created();
+        endpoints.acquire(onlyFirst).failed();
+        GridEndpoints.Lease probe = endpoints.acquire(onlyFirst);
+        Assert.assertEquals("http://probe1/wd/hub", probe.getAddress());
+        before.release();
+
+        Assert.assertEquals("http://probe2/wd/hub", endpoints.acquire().getAddress());
+    }
+
+    @Test
+    public void hubsThatAlreadyFailedAreExcluded() throws InterruptedException {
+        GridEndpoints endpoints = new GridEndpoints("http://excluded1/wd/hub|10,http://excluded2/wd/hub", "3", "60");
+
+        GridEndpoints.Lease first = endpoints.acquire();
+        Assert.assertEquals("http://excluded1/wd/hub", first.getAddress());
+        first.failed();
+        Assert.assertEquals("http://excluded2/wd/hub", endpoints.acquire(ImmutableSet.of(first.getAddress())).getAddress());
+    }
+}
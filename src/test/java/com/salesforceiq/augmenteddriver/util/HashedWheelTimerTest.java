@@ -0,0 +1,71 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HashedWheelTimerTest {
+
+    private static final long TICK_IN_MILLIS = 10;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-wheel", TICK_IN_MILLIS, 4);
+
+    @Test
+    public void runsTheTasksInTheOrderOfTheirDelays() throws Exception {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        int[] delays = {60, 20, 40};
+        // Created first, so the three are scheduled at about the same time.
+        List<Runnable> tasks = new ArrayList<>();
+        for (int delay : delays) {
+            tasks.add(() -> {
+                order.add(delay);
+                done.countDown();
+            });
+        }
+        for (int index = 0; index < delays.length; index++) {
+            timer.schedule(tasks.get(index), delays[index]);
+        }
+
+        Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(ImmutableList.of(20, 40, 60), order);
+    }
+
+    @Test
+    public void delaysLongerThanATurnWaitForMoreTurns() throws Exception {
+        // 4 buckets of 10ms are a turn of 40ms, 130ms is 3 more turns.
+        long elapsed = elapsedInMillis(130);
+        Assert.assertTrue(String.valueOf(elapsed), elapsed >= 130 && elapsed < 500);
+    }
+
+    @Test
+    public void wakesUpAfterBeingIdle() throws Exception {
+        elapsedInMillis(10);
+        Thread.sleep(200);
+
+        long elapsed = elapsedInMillis(20);
+        Assert.assertTrue(String.valueOf(elapsed), elapsed >= 20 && elapsed < 500);
+    }
+
+    /**
+     * @return how long it took to run a task scheduled in delayInMillis.
+     */
+    private long elapsedInMillis(long delayInMillis) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicLong ranAt = new AtomicLong();
+        long start = System.nanoTime();
+        timer.schedule(() -> {
+            ranAt.set(System.nanoTime());
+            done.countDown();
+        }, delayInMillis);
+        Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+        return TimeUnit.NANOSECONDS.toMillis(ranAt.get() - start);
+    }
+}
@@ -0,0 +1,31 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(millis, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals(100, histogram.count());
+        Assert.assertEquals(100, histogram.maxInMillis());
+        Assert.assertEquals(5050, histogram.totalInMillis());
+        Assert.assertEquals(50, histogram.percentileInMillis(50), 50 * 0.125);
+        Assert.assertEquals(99, histogram.percentileInMillis(99), 99 * 0.125);
+        Assert.assertEquals(100, histogram.percentileInMillis(100), 0.001);
+    }
+
+    @Test
+    public void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.count());
+        Assert.assertEquals(0, histogram.percentileInMillis(99), 0.001);
+    }
+}
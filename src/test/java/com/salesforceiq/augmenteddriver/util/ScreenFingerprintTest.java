@@ -0,0 +1,46 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+public class ScreenFingerprintTest {
+
+    private static final String LIST = "<hierarchy>\n  <android.widget.ListView focused=\"false\">\n" +
+            "    <android.widget.TextView text=\"One\" bounds=\"[0,0][100,50]\"/>\n  </android.widget.ListView>\n</hierarchy>";
+
+    @Test
+    public void ignoresFocusAndFormatting() {
+        String focusedAndCompact = LIST.replace("focused=\"false\"", "focused=\"true\"").replaceAll(">\\s+<", "><");
+
+        Assert.assertEquals(ScreenFingerprint.of(LIST), ScreenFingerprint.of(focusedAndCompact));
+        Assert.assertNotEquals(ScreenFingerprint.of(LIST), ScreenFingerprint.of(LIST.replace("[0,0][100,50]", "[0,-50][100,0]")));
+    }
+
+    @Test
+    public void skipsTheSearchesWhileTheScreenIsTheSame() {
+        AtomicReference<String> screen = new AtomicReference<>(LIST);
+        AtomicInteger fingerprints = new AtomicInteger();
+        AtomicInteger searches = new AtomicInteger();
+        Function<org.openqa.selenium.SearchContext, WaitResult<String>> condition = ScreenFingerprint.skipWhileUnchanged(
+                () -> {
+                    fingerprints.incrementAndGet();
+                    return ScreenFingerprint.of(screen.get());
+                },
+                context -> searches.incrementAndGet() < 4 ? WaitResult.notYet("Not yet") : WaitResult.done("found"));
+
+        condition.apply(null);
+        Assert.assertEquals(0, fingerprints.get());
+        condition.apply(null);
+        condition.apply(null);
+        Assert.assertEquals(2, searches.get());
+        screen.set(LIST.replace("One", "Two"));
+        Assert.assertFalse(condition.apply(null).isDone());
+        screen.set(LIST);
+        Assert.assertTrue(condition.apply(null).isDone());
+        Assert.assertEquals(4, searches.get());
+    }
+}
@@ -0,0 +1,44 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+
+public class StabilityDetectorTest {
+
+    private FakeWebDriverServer server;
+    private RemoteWebDriver driver;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeWebDriverServer(0, new FakeElement("html").withChildren(new FakeElement("div").withId("still")))
+                .start();
+        driver = new RemoteWebDriver(new URL(server.getAddress()), DesiredCapabilities.firefox());
+    }
+
+    @After
+    public void tearDown() {
+        driver.quit();
+        server.stop();
+    }
+
+    @Test
+    public void pollsUntilEnoughSamplesAreClose() {
+        Assert.assertEquals(2 * 3, commandsUntilStable(1));
+        Assert.assertEquals(4 * 3, commandsUntilStable(3));
+    }
+
+    private long commandsUntilStable(int stableSamples) {
+        long before = server.getCommandCount();
+        Assert.assertNotNull(StabilityDetector.findElementStableAfter(driver, By.id("still"), 0, stableSamples, 5));
+        return server.getCommandCount() - before;
+    }
+}
@@ -0,0 +1,65 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class WaitTelemetryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void suggestsTighterTimeoutsAndFlagsNearTimeouts() {
+        WaitTelemetry telemetry = new WaitTelemetry();
+        for (int index = 0; index < 10; index++) {
+            telemetry.record("By.id: fast", 200, 30000, true);
+            telemetry.record("By.id: slow", 9000, 10000, true);
+        }
+
+        String report = telemetry.report();
+        Assert.assertTrue(report, report.contains("By.id: fast: 1s instead of 30s"));
+        Assert.assertTrue(report, report.contains("By.id: slow: 10 near, 0 timed out of 10"));
+        Assert.assertFalse(report, report.contains("By.id: slow: 1s"));
+    }
+
+    @Test
+    public void comparesWithThePreviousRun() throws Exception {
+        WaitTelemetry previous = new WaitTelemetry();
+        previous.record("By.id: save", 100, 30000, true);
+        previous.save(folder.getRoot().getPath());
+        File saved = folder.getRoot().listFiles()[0];
+        Assert.assertTrue(saved.renameTo(new File(folder.getRoot(), "waits-20000101-000000.json")));
+
+        WaitTelemetry current = new WaitTelemetry();
+        current.record("By.id: save", 2000, 30000, true);
+        String changes = current.save(folder.getRoot().getPath());
+
+        Assert.assertEquals(2, folder.getRoot().listFiles().length);
+        Assert.assertTrue(changes, changes.contains("By.id: save: p95 2"));
+        Assert.assertTrue(new String(Files.readAllBytes(saved.toPath().resolveSibling("waits-20000101-000000.json")),
+                StandardCharsets.UTF_8).contains("\"p95InMillis\""));
+    }
+
+    @Test
+    public void callSitesDoNotDependOnTheLine() throws Exception {
+        WaitTelemetry previous = new WaitTelemetry();
+        previous.record("LoginPage.login:12", "By.id: save", 100, 30000, true);
+        previous.record("LoginPage.login:40", "By.id: save", 100, 30000, true);
+        Assert.assertTrue(previous.report(), previous.report().startsWith("1 call sites"));
+        previous.save(folder.getRoot().getPath());
+        File saved = folder.getRoot().listFiles()[0];
+        Assert.assertTrue(saved.renameTo(new File(folder.getRoot(), "waits-20000101-000000.json")));
+
+        WaitTelemetry current = new WaitTelemetry();
+        current.record("LoginPage.login:15", "By.id: save", 2000, 30000, true);
+        String changes = current.save(folder.getRoot().getPath());
+
+        Assert.assertTrue(changes, changes.contains("LoginPage.login:15 By.id: save: p95 2"));
+    }
+}
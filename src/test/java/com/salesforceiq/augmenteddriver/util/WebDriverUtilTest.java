@@ -0,0 +1,157 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableList;
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class WebDriverUtilTest {
+
+    private FakeWebDriverServer server;
+    private RemoteWebDriver driver;
+
+    @Before
+    public void setUp() throws Exception {
+        FakeElement root = new FakeElement("html").withSize(1280, 1024).withChildren(
+                new FakeElement("div").withId("error").hidden(),
+                new FakeElement("div").withId("toast").visibleAfter(300),
+                new FakeElement("div").withId("header"),
+                new FakeElement("div").withId("drawer").at(300, 0).movingUntil(600));
+        server = new FakeWebDriverServer(0, root).start();
+        driver = new RemoteWebDriver(new URL(server.getAddress()), DesiredCapabilities.firefox());
+    }
+
+    @After
+    public void tearDown() {
+        driver.quit();
+        server.stop();
+    }
+
+    @Test
+    public void anyReturnsTheByThatMatched() {
+        List<By> bys = ImmutableList.of(By.id("redirect"), By.id("error"), By.id("toast"));
+
+        Assert.assertTrue(WebDriverUtil.findAnyElementAfter(driver, bys, false, 5).is(By.id("error")));
+        LocatorMatch<WebElement> visible = WebDriverUtil.findAnyElementAfter(driver, bys, true, 5);
+        Assert.assertEquals(By.id("toast"), visible.getBy());
+        Assert.assertEquals(2, visible.getIndex());
+    }
+
+    @Test
+    public void allWaitsForEveryBy() {
+        List<LocatorMatch<WebElement>> matches = WebDriverUtil.findAllElementsAfter(driver,
+                ImmutableList.of(By.id("header"), By.id("toast")), true, 5);
+
+        Assert.assertEquals(2, matches.size());
+        Assert.assertEquals(By.id("toast"), matches.get(1).getBy());
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void allTimesOutIfOneIsMissing() {
+        WebDriverUtil.findAllElementsAfter(driver, ImmutableList.of(By.id("header"), By.id("redirect")), false, 1);
+    }
+
+    @Test
+    public void allIsReportedWithItsBys() {
+        TestBudget.start("budget", 1);
+        AssertionError budgetOver = null;
+        try {
+            WebDriverUtil.findAllElementsAfter(driver, ImmutableList.of(By.id("header"), By.id("redirect")), false, 5);
+        } catch (AssertionError e) {
+            budgetOver = e;
+        } finally {
+            TestBudget.clear();
+        }
+        Assert.assertNotNull("The budget should be over", budgetOver);
+        Assert.assertTrue(budgetOver.getMessage(),
+                budgetOver.getMessage().contains("for all of [By.id: header, By.id: redirect] present"));
+    }
+
+    @Test
+    public void notMovingWaitsForTheAnimation() {
+        WebElement drawer = WebDriverUtil.findElementNotMovingAfter(driver, By.id("drawer"), 5);
+
+        Assert.assertEquals(300, drawer.getLocation().getX());
+    }
+
+    @Test
+    public void immediateChecksSendOneSearch() {
+        long before = server.getCommandCount();
+
+        Assert.assertFalse(WebDriverUtil.isElementPresentImmediate(driver, By.id("redirect")));
+        Assert.assertEquals(before + 1, server.getCommandCount());
+        Assert.assertTrue(WebDriverUtil.isElementPresentImmediate(driver, By.id("error")));
+        Assert.assertFalse(WebDriverUtil.isElementVisibleImmediate(driver, By.id("error")));
+        Assert.assertTrue(WebDriverUtil.isElementClickableImmediate(driver, By.id("header")));
+    }
+
+    @Test
+    public void waitsStopWhenTheTestBudgetIsOver() {
+        TestBudget.start("budget", 1);
+        long start = System.currentTimeMillis();
+        AssertionError budgetOver = null;
+        try {
+            WebDriverUtil.findElementPresentAfter(driver, By.id("toast"), 5);
+            WebDriverUtil.findElementVisibleAfter(driver, By.id("error"), 5);
+        } catch (AssertionError e) {
+            budgetOver = e;
+        } finally {
+            TestBudget.clear();
+        }
+        Assert.assertNotNull("The budget should be over", budgetOver);
+        Assert.assertTrue(budgetOver.getMessage(), budgetOver.getMessage().contains("1 timed out) for By.id: error"));
+        Assert.assertTrue(System.currentTimeMillis() - start < 3000);
+    }
+
+    @Test
+    public void cancellingAnAsyncWaitStopsItsPolls() throws Exception {
+        CompletableFuture<Void> header = WebDriverUtil.waitElementToNotBeVisibleAsync(driver, By.id("header"), 5);
+        Thread.sleep(500);
+        Assert.assertTrue(header.cancel(false));
+        // A poll can still be in flight when it is cancelled.
+        Thread.sleep(200);
+        long afterCancel = server.getCommandCount();
+        Thread.sleep(1000);
+
+        Assert.assertEquals(afterCancel, server.getCommandCount());
+    }
+
+    @Test
+    public void asyncWaitsRunTogetherAndKeepTheBudgetOfTheTest() throws Exception {
+        TestBudget budget = TestBudget.start("async", 30);
+        try {
+            long start = System.currentTimeMillis();
+            CompletableFuture<WebElement> toast = WebDriverUtil.findElementVisibleAfterAsync(driver, By.id("toast"), 5);
+            CompletableFuture<Void> error = WebDriverUtil.waitElementToNotBeVisibleAsync(driver, By.id("error"), 5);
+            CompletableFuture<WebElement> redirect = WebDriverUtil.findElementPresentAfterAsync(driver, By.id("redirect"), 1);
+
+            Assert.assertEquals("div", toast.get(5, TimeUnit.SECONDS).getTagName());
+            error.get(5, TimeUnit.SECONDS);
+            try {
+                redirect.get(5, TimeUnit.SECONDS);
+                Assert.fail("redirect is not there");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof TimeoutException);
+                Assert.assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("is not present after 1 seconds"));
+            }
+            Assert.assertTrue(System.currentTimeMillis() - start < 2500);
+            Assert.assertTrue(budget.report(), budget.report().contains("for By.id: toast"));
+        } finally {
+            TestBudget.clear();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+public class YamlCapabilitiesConverterTest {
+
+    @Test
+    public void everyConversionIsACopy() throws Exception {
+        DesiredCapabilities first = YamlCapabilitiesConverter.convert(Paths.get("capabilities/chrome.yaml"));
+        DesiredCapabilities second = YamlCapabilitiesConverter.convert(Paths.get("capabilities/chrome.yaml"));
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first, second);
+        first.setCapability("version", "1.0");
+        Assert.assertEquals("46.0", second.getCapability("version"));
+        Assert.assertEquals("46.0", YamlCapabilitiesConverter.convert(Paths.get("capabilities/chrome.yaml")).getCapability("version"));
+    }
+
+    @Test
+    public void filesWithTheSameBrowserDoNotShareCapabilities() throws Exception {
+        Path other = Files.createTempFile("chrome", ".yaml");
+        try {
+            Files.write(other, "capabilities: \"chrome\"\nversion: \"47.0\"\n".getBytes(StandardCharsets.UTF_8));
+
+            Assert.assertEquals("47.0", YamlCapabilitiesConverter.convert(other).getCapability("version"));
+            Assert.assertEquals("46.0", YamlCapabilitiesConverter.convert(Paths.get("capabilities/chrome.yaml")).getCapability("version"));
+
+            Files.write(other, "capabilities: \"chrome\"\nversion: \"48.0\"\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals("48.0", YamlCapabilitiesConverter.convert(other).getCapability("version"));
+        } finally {
+            Files.delete(other);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void nestedCapabilitiesAreCopiedToo() throws Exception {
+        Path nested = Files.createTempFile("nested", ".yaml");
+        try {
+            Files.write(nested, "capabilities: \"chrome\"\nprefs:\n  download: \"/tmp\"\n  args:\n    - \"--headless\"\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            Map<String, Object> first = (Map<String, Object>) YamlCapabilitiesConverter.convert(nested).getCapability("prefs");
+            first.put("download", "/home");
+            ((List<Object>) first.get("args")).add("--incognito");
+
+            Map<String, Object> second = (Map<String, Object>) YamlCapabilitiesConverter.convert(nested).getCapability("prefs");
+            Assert.assertEquals("/tmp", second.get("download"));
+            Assert.assertEquals(1, ((List<Object>) second.get("args")).size());
+        } finally {
+            Files.delete(nested);
+        }
+    }
+}
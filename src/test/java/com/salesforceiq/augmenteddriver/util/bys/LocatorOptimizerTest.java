@@ -0,0 +1,85 @@
+package com.salesforceiq.augmenteddriver.util.bys;
+
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import com.salesforceiq.augmenteddriver.web.AugmentedWebDriver;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+
+public class LocatorOptimizerTest {
+
+    @Test
+    public void androidBysUseUiAutomator() {
+        long before = LocatorOptimizer.count("uiautomator");
+
+        Assert.assertEquals("By.AndroidUIAutomator: new UiSelector().className(\"android.widget.TextView\").text(\"Save\")",
+                AndroidBys.textViewWithText("Save").toString());
+        Assert.assertEquals("By.AndroidUIAutomator: new UiSelector().className(\"android.widget.TextView\").textContains(\"Sa\")",
+                AndroidBys.textViewContainsText("Sa").toString());
+        Assert.assertEquals("Only the searches are counted", before, LocatorOptimizer.count("uiautomator"));
+        Assert.assertEquals("By.AccessibilityId: Save",
+                LocatorOptimizer.optimize(By.xpath(".//*[@content-desc='Save']"), LocatorOptimizer.Target.ANDROID).toString());
+    }
+
+    @Test
+    public void iosNamesWithoutClassUseAccessibilityIds() {
+        Assert.assertEquals("By.AccessibilityId: Save",
+                LocatorOptimizer.optimize(By.xpath(".//*[@name='Save']"), LocatorOptimizer.Target.IOS).toString());
+        Assert.assertEquals("By.xpath: .//UIAButton[@name='Save']", IOSBys.buttonWithName("Save").toString());
+        Assert.assertEquals("By.xpath: .//UIATextField[@value='Email']", IOSBys.textFieldWithValue("Email").toString());
+    }
+
+    @Test
+    public void keepsWhatCannotBeRewritten() {
+        By twoConditions = By.xpath(".//div[@class='a' and @id='b']");
+        By twoSteps = By.xpath(".//div//span[@id='b']");
+
+        Assert.assertSame(twoConditions, LocatorOptimizer.optimize(twoConditions, LocatorOptimizer.Target.WEB));
+        Assert.assertSame(twoSteps, LocatorOptimizer.optimize(twoSteps, LocatorOptimizer.Target.ANDROID));
+    }
+
+    @Test
+    public void webRewritesFindTheSameElements() throws Exception {
+        FakeElement root = new FakeElement("html").withChildren(
+                new FakeElement("input").withAttribute("name", "query"),
+                new FakeElement("a").withId("home").withAttribute("href", "/home/index"));
+        FakeWebDriverServer server = new FakeWebDriverServer(0, root).start();
+        RemoteWebDriver driver = new RemoteWebDriver(new URL(server.getAddress()), DesiredCapabilities.firefox());
+        try {
+            for (String xpath : new String[] {".//input[@name='query']", ".//*[@id='home']", ".//a[contains(@href, 'home')]"}) {
+                By optimized = LocatorOptimizer.optimize(By.xpath(xpath), LocatorOptimizer.Target.WEB);
+                Assert.assertFalse(optimized.toString().startsWith("By.xpath"));
+                Assert.assertEquals(driver.findElements(By.xpath(xpath)), driver.findElements(optimized));
+            }
+        } finally {
+            driver.quit();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void augmentedWebDriverSearchesWithTheRewrites() throws Exception {
+        FakeElement root = new FakeElement("html").withChildren(
+                new FakeElement("form").withChildren(new FakeElement("input").withAttribute("name", "email")));
+        FakeWebDriverServer server = new FakeWebDriverServer(0, root).start();
+        AugmentedWebDriver driver = new AugmentedWebDriver(server.getAddress(), DesiredCapabilities.firefox());
+        try {
+            long before = LocatorOptimizer.count("css");
+
+            WebElement form = driver.findElement(By.tagName("form"));
+            Assert.assertEquals(1, driver.findElements(By.xpath(".//input[@name='email']")).size());
+            Assert.assertEquals("input", form.findElement(By.xpath(".//input[@name='email']")).getTagName());
+
+            Assert.assertEquals(before + 2, LocatorOptimizer.count("css"));
+        } finally {
+            driver.quit();
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.salesforceiq.augmenteddriver.util.bys;
+
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import org.junit.Assert;
+import org.junit.Test;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+
+public class NativeBysTest {
+
+    @Test
+    public void buildsTheNativeSelectors() {
+        Assert.assertEquals("By.AndroidUIAutomator: new UiSelector().className(\"android.widget.TextView\").text(\"Say \\\"hi\\\"\")",
+                AndroidUiAutomatorBys.textViewWithText("Say \"hi\"").toString());
+        Assert.assertEquals("By.AndroidUIAutomator: new UiScrollable(new UiSelector().scrollable(true).instance(0))"
+                        + ".scrollIntoView(new UiSelector().className(\"android.widget.TextView\").textContains(\"Sa\"))",
+                AndroidUiAutomatorBys.scrollIntoViewContainsText("android.widget.TextView", "Sa").toString());
+        Assert.assertEquals("By.AndroidUIAutomator: new UiScrollable(new UiSelector().resourceId(\"com.app:id/inbox\"))"
+                        + ".scrollIntoView(new UiSelector().className(\"android.widget.TextView\").text(\"Save\"))",
+                AndroidUiAutomatorBys.scrollIntoView("com.app:id/inbox", AndroidBys.textViewWithText("Save")).toString());
+        Assert.assertEquals(AndroidUiAutomatorBys.scrollIntoView(AndroidUiAutomatorBys.textViewWithText("Save")),
+                AndroidUiAutomatorBys.scrollIntoView(AndroidBys.textViewWithText("Save")));
+        Assert.assertFalse(AndroidUiAutomatorBys.isUiSelector(By.id("save")));
+        Assert.assertEquals("By.IosUIAutomation: .getAllWithPredicate(\"name == 'Don\\\\'t'\", true) of class UIAButton",
+                IOSPredicateBys.buttonWithName("Don't").toString());
+    }
+
+    @Test
+    public void scrollsToThePredicatesAndTheXPathsOfIOSBys() {
+        Assert.assertEquals("By.IosUIAutomation: .scrollToElementWithPredicate(\"name == 'Save'\") of class UIAButton",
+                IOSPredicateBys.scrollToElement(IOSBys.buttonWithName("Save")).toString());
+        Assert.assertEquals(IOSPredicateBys.scrollToElementWithValue("UIATextField", "Email"),
+                IOSPredicateBys.scrollToElement(IOSBys.textFieldWithValue("Email")));
+        Assert.assertFalse(IOSPredicateBys.isPredicate(By.xpath(".//UIAButton[@name='a' and @value='b']")));
+    }
+
+    @Test
+    public void findTheSameElementsAsTheXPaths() throws Exception {
+        FakeElement root = FakeElement.fromPageSource("<hierarchy>"
+                + "<android.widget.TextView text=\"Save\" content-desc=\"\"/>"
+                + "<android.widget.Button text=\"Save\" content-desc=\"\"/>"
+                + "<android.widget.TextView text=\"Saved drafts\" content-desc=\"\"/>"
+                + "<android.widget.ImageButton text=\"\" content-desc=\"Compose\"/>"
+                + "<UIAButton name=\"Edit\" value=\"\"/>"
+                + "<UIAStaticText name=\"Edit\" value=\"\"/>"
+                + "<UIATextField name=\"Email\" value=\"me@mail.com\"/>"
+                + "</hierarchy>");
+        FakeWebDriverServer server = new FakeWebDriverServer(0, root).start();
+        AndroidDriver<WebElement> android = new AndroidDriver<>(new URL(server.getAddress()), DesiredCapabilities.android());
+        IOSDriver<WebElement> ios = new IOSDriver<>(new URL(server.getAddress()), DesiredCapabilities.iphone());
+        try {
+            assertSame(android, AndroidBys.textViewWithText("Save"), AndroidUiAutomatorBys.textViewWithText("Save"), 1);
+            assertSame(android, AndroidBys.textViewContainsText("Save"), AndroidUiAutomatorBys.textViewContainsText("Save"), 2);
+            assertSame(android, AndroidBys.imageButtonWithContentDesc("Compose"),
+                    AndroidUiAutomatorBys.imageButtonWithContentDesc("Compose"), 1);
+            assertSame(ios, IOSBys.buttonWithName("Edit"), IOSPredicateBys.buttonWithName("Edit"), 1);
+            assertSame(ios, IOSBys.textFieldWithValue("me@mail.com"), IOSPredicateBys.textFieldWithValue("me@mail.com"), 1);
+        } finally {
+            android.quit();
+            ios.quit();
+            server.stop();
+        }
+    }
+
+    private static void assertSame(RemoteWebDriver driver, By xpath, By nativeBy, int expected) {
+        Assert.assertEquals(expected, driver.findElements(nativeBy).size());
+        Assert.assertEquals(driver.findElements(LocatorOptimizer.original(xpath)), driver.findElements(nativeBy));
+    }
+}
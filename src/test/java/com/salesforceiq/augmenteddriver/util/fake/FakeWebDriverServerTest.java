@@ -0,0 +1,55 @@
+package com.salesforceiq.augmenteddriver.util.fake;
+
+import com.salesforceiq.augmenteddriver.util.WebDriverUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+
+public class FakeWebDriverServerTest {
+
+    private FakeWebDriverServer server;
+    private RemoteWebDriver driver;
+
+    @Before
+    public void setUp() throws Exception {
+        FakeElement root = new FakeElement("html").withSize(1280, 1024).withChildren(
+                new FakeElement("div").withId("content").withClass("main wide").withChildren(
+                        new FakeElement("button").withId("save").withText("Save"),
+                        new FakeElement("span").withClass("toast").withText("Saved").visibleAfter(300)));
+        server = new FakeWebDriverServer(0, root).start();
+        driver = new RemoteWebDriver(new URL(server.getAddress()), DesiredCapabilities.firefox());
+    }
+
+    @After
+    public void tearDown() {
+        driver.quit();
+        server.stop();
+    }
+
+    @Test
+    public void findsElements() {
+        Assert.assertEquals("Save", driver.findElement(By.id("save")).getText());
+        Assert.assertEquals("Save", driver.findElement(By.cssSelector("div.main #save")).getText());
+        Assert.assertEquals("Save", driver.findElement(By.xpath("//button[text()='Save']")).getText());
+        Assert.assertEquals(2, driver.findElement(By.id("content")).findElements(By.xpath(".//*")).size());
+        try {
+            driver.findElement(By.id("missing"));
+            Assert.fail("Found an element that does not exist");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void elementBecomesVisible() {
+        Assert.assertFalse(driver.findElement(By.className("toast")).isDisplayed());
+        Assert.assertEquals("Saved", WebDriverUtil.findElementVisibleAfter(driver, By.className("toast"), 5).getText());
+    }
+}
@@ -0,0 +1,49 @@
+package com.salesforceiq.augmenteddriver.util.polling;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.By;
+
+public class PollingStrategiesTest {
+
+    @Test
+    public void backoffGrowsUpToTheMax() {
+        PollingStrategy.Schedule schedule = new BackoffPollingStrategy(50, 500, 2, 0).start(By.id("one"));
+
+        Assert.assertEquals(50, schedule.nextSleepInMillis(1, 0));
+        Assert.assertEquals(100, schedule.nextSleepInMillis(2, 50));
+        Assert.assertEquals(400, schedule.nextSleepInMillis(4, 350));
+        Assert.assertEquals(500, schedule.nextSleepInMillis(5, 750));
+        Assert.assertEquals(500, schedule.nextSleepInMillis(50, 20000));
+    }
+
+    @Test
+    public void jitterStaysInRange() {
+        PollingStrategy.Schedule schedule = new BackoffPollingStrategy(100, 100, 1, 0.2).start(null);
+        for (int i = 0; i < 100; i++) {
+            long sleep = schedule.nextSleepInMillis(1, 0);
+            Assert.assertTrue(sleep >= 80 && sleep <= 120);
+        }
+    }
+
+    @Test
+    public void learningSleepsWhatTheByUsuallyTakes() {
+        LearningPollingStrategy strategy = new LearningPollingStrategy(new BackoffPollingStrategy(50, 500, 2, 0), 5000);
+        By by = By.id("slow");
+
+        Assert.assertEquals(50, strategy.start(by).nextSleepInMillis(1, 0));
+        strategy.start(by).finished(true, 2000);
+        strategy.start(by).finished(false, 30000);
+
+        Assert.assertEquals(2000, strategy.averageInMillis(by), 0.001);
+        PollingStrategy.Schedule schedule = strategy.start(by);
+        Assert.assertEquals(1600, schedule.nextSleepInMillis(1, 0));
+        Assert.assertEquals(100, schedule.nextSleepInMillis(2, 1600));
+        Assert.assertEquals(50, strategy.start(By.id("other")).nextSleepInMillis(1, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownStrategy() {
+        PollingStrategies.create("random", 50, 500, 1.5, 0.2);
+    }
+}
@@ -0,0 +1,73 @@
+package com.salesforceiq.augmenteddriver.web;
+
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BrowserSideWaitTest {
+
+    private final FakeElement button = new FakeElement("button").withId("save");
+    private final List<String> waitScripts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger installs = new AtomicInteger();
+    private final AtomicBoolean installed = new AtomicBoolean();
+    private final AtomicBoolean unload = new AtomicBoolean();
+    private FakeWebDriverServer server;
+    private AugmentedWebDriver driver;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeWebDriverServer(0, new FakeElement("html").withChildren(button))
+                .withScriptHandler((session, script, arguments) -> {
+                    if (script.contains("window.__augmentedStates = ")) {
+                        installs.incrementAndGet();
+                        installed.set(true);
+                        return null;
+                    }
+                    waitScripts.add(script);
+                    if (unload.getAndSet(false)) {
+                        installed.set(false);
+                        throw new IllegalStateException("document unloaded while waiting for result");
+                    }
+                    return installed.get() ? button : "augmented-states-missing";
+                })
+                .start();
+        driver = new AugmentedWebDriver(server.getAddress(), DesiredCapabilities.firefox());
+    }
+
+    @After
+    public void tearDown() {
+        driver.quit();
+        server.stop();
+    }
+
+    @Test
+    public void theStateFunctionsAreSentOncePerPage() {
+        for (int i = 0; i < 3; i++) {
+            WebElement element = BrowserSideWait.waitFor(driver, driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, null, 5);
+            Assert.assertEquals("button", element.getTagName());
+        }
+
+        Assert.assertEquals(1, installs.get());
+        waitScripts.forEach(script -> Assert.assertTrue("Script too big: " + script.length(), script.length() < 10000));
+    }
+
+    @Test
+    public void keepsWaitingInTheNewPage() {
+        BrowserSideWait.waitFor(driver, driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, null, 5);
+        unload.set(true);
+
+        Assert.assertNotNull(BrowserSideWait.waitFor(driver, driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, null, 5));
+        Assert.assertEquals(2, installs.get());
+    }
+}
@@ -0,0 +1,104 @@
+package com.salesforceiq.augmenteddriver.web;
+
+import com.salesforceiq.augmenteddriver.util.WebDriverUtil;
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class ElementCacheTest {
+
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicBoolean stillMatches = new AtomicBoolean(true);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private FakeWebDriverServer server;
+    private AugmentedWebDriver driver;
+    private Supplier<WebElement> lookup;
+
+    @Before
+    public void setUp() throws Exception {
+        FakeElement root = new FakeElement("html").withSize(1280, 1024).withChildren(
+                new FakeElement("button").withId("save"));
+        server = new FakeWebDriverServer(0, root)
+                .withScriptHandler((session, script, arguments) -> {
+                    // As the check script: after changes in the page the element has to match the By again.
+                    boolean changed = ((Number) arguments.get(2)).longValue() != mutations.get();
+                    return changed && !stillMatches.get() ? -1 : mutations.get();
+                })
+                .start();
+        driver = new AugmentedWebDriver(server.getAddress(), DesiredCapabilities.firefox());
+        lookup = () -> {
+            lookups.incrementAndGet();
+            return WebDriverUtil.findElementPresentAfter(driver, By.id("save"), 1);
+        };
+    }
+
+    @After
+    public void tearDown() {
+        driver.quit();
+        server.stop();
+    }
+
+    @Test
+    public void reusesTheElementWhileThePageDoesNotChange() {
+        WebElement first = driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+        WebElement second = driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.CLICKABLE, lookup);
+        WebElement third = driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(first, third);
+        Assert.assertEquals(1, lookups.get());
+        Assert.assertEquals(2.0 / 3, driver.elementCache().hitRate(), 0.001);
+    }
+
+    @Test
+    public void reusesTheElementWhenItStillMatchesAfterChanges() {
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+        mutations.set(3);
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+
+        Assert.assertEquals(1, lookups.get());
+        Assert.assertEquals(2.0 / 3, driver.elementCache().hitRate(), 0.001);
+    }
+
+    @Test
+    public void looksUpAgainWhenTheElementNoLongerMatchesAfterChanges() {
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+        mutations.set(3);
+        stillMatches.set(false);
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+
+        Assert.assertEquals(2, lookups.get());
+        Assert.assertTrue(driver.elementCache().report().contains("1 stale"));
+    }
+
+    @Test
+    public void clickingStartsANewEpoch() {
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.CLICKABLE, lookup).click();
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.CLICKABLE, lookup);
+
+        Assert.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void looksUpAgainWhenTheElementIsNoLongerValid() {
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+        mutations.set(-1);
+        driver.elementCache().find(driver, By.id("save"), BrowserSideWait.Condition.VISIBLE, lookup);
+
+        Assert.assertEquals(2, lookups.get());
+        Assert.assertTrue(driver.elementCache().report().contains("1 stale"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.salesforceiq.augmenteddriver.web;
+
+import com.google.common.collect.ImmutableMap;
+import com.salesforceiq.augmenteddriver.util.TestBudget;
+import com.salesforceiq.augmenteddriver.util.fake.FakeElement;
+import com.salesforceiq.augmenteddriver.util.fake.FakeWebDriverServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PageQuiescenceTest {
+
+    private static final Map<String, Object> QUIESCENT = ImmutableMap.of(
+            "readyState", "complete", "requests", 0, "timers", 0, "animations", 0, "quiescent", true);
+    private static final Map<String, Object> LOADING = ImmutableMap.of(
+            "readyState", "complete", "requests", 2, "timers", 0, "animations", 0, "quiescent", false);
+
+    private final AtomicReference<Map<String, Object>> state = new AtomicReference<>(QUIESCENT);
+    private final AtomicReference<List<Object>> arguments = new AtomicReference<>();
+    private final AtomicBoolean unload = new AtomicBoolean();
+    private FakeWebDriverServer server;
+    private AugmentedWebDriver driver;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeWebDriverServer(0, new FakeElement("html").withSize(1280, 1024))
+                .withScriptHandler((session, script, scriptArguments) -> {
+                    arguments.set(scriptArguments);
+                    if (unload.getAndSet(false)) {
+                        throw new IllegalStateException("document unloaded while waiting for result");
+                    }
+                    return state.get();
+                })
+                .start();
+        driver = new AugmentedWebDriver(server.getAddress(), DesiredCapabilities.firefox());
+    }
+
+    @After
+    public void tearDown() {
+        TestBudget.clear();
+        driver.quit();
+        server.stop();
+    }
+
+    @Test
+    public void returnsWhenThePageIsQuiescent() {
+        PageQuiescence.waitFor(driver, 500, 5);
+
+        Assert.assertEquals(500L, ((Number) arguments.get().get(0)).longValue());
+        Assert.assertEquals(5000L, ((Number) arguments.get().get(1)).longValue());
+    }
+
+    @Test
+    public void keepsWaitingInTheNewPage() {
+        unload.set(true);
+
+        PageQuiescence.waitFor(driver, 500, 5);
+
+        Assert.assertFalse(unload.get());
+        Assert.assertTrue(((Number) arguments.get().get(1)).longValue() <= 5000);
+    }
+
+    @Test
+    public void timesOutWithWhatWasStillGoingOn() {
+        state.set(LOADING);
+        try {
+            PageQuiescence.waitFor(driver, 500, 5);
+            Assert.fail("The page is not quiescent");
+        } catch (TimeoutException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Page not quiescent after 5 seconds"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("requests=2"));
+        }
+    }
+
+    @Test
+    public void failsTheTestWhenTheBudgetIsOver() {
+        state.set(LOADING);
+        TestBudget.start("budget", 1);
+        AssertionError budgetOver = null;
+        try {
+            PageQuiescence.waitFor(driver, 500, 5);
+        } catch (AssertionError e) {
+            budgetOver = e;
+        }
+        Assert.assertNotNull("The budget should be over", budgetOver);
+        Assert.assertTrue(budgetOver.getMessage(), budgetOver.getMessage().contains("for page quiescent"));
+        Assert.assertTrue(((Number) arguments.get().get(1)).longValue() <= 1000);
+    }
+}
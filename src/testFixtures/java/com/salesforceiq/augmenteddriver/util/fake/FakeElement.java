@@ -0,0 +1,266 @@
+package com.salesforceiq.augmenteddriver.util.fake;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Element of the in memory DOM served by {@link FakeWebDriverServer}.
+ *
+ * <p>
+ *     All the times are in milliseconds since the session was created (or since the last navigation), so the
+ *     same DOM can be used to simulate elements that show up, become visible, move or go away.
+ * </p>
+ */
+public class FakeElement {
+
+    private static final Pattern BOUNDS = Pattern.compile("^\\[(-?\\d+),(-?\\d+)\\]\\[(-?\\d+),(-?\\d+)\\]$");
+
+    private final String tag;
+    private final Map<String, String> attributes;
+    private final List<FakeElement> children;
+    private FakeElement parent;
+    private String id;
+    private String text = "";
+    private boolean enabled = true;
+    private boolean displayed = true;
+    private int x;
+    private int y;
+    private int width = 100;
+    private int height = 20;
+    private long presentAfter;
+    private long visibleAfter;
+    private long goneAfter = Long.MAX_VALUE;
+    private long movingUntil;
+
+    public FakeElement(String tag) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(tag));
+        this.tag = tag;
+        this.attributes = Maps.newConcurrentMap();
+        this.children = Lists.newCopyOnWriteArrayList();
+    }
+
+    /**
+     * The DOM of a page source recorded from an Appium session, with the attributes of each element as they are.
+     *
+     * <p>
+     *     The text is the text attribute (Android), or the value (iOS). The bounds, and whether the element is
+     *     enabled or visible, are taken from the attributes of both platforms.
+     * </p>
+     */
+    public static FakeElement fromPageSource(String pageSource) {
+        Preconditions.checkNotNull(pageSource);
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+            return fromNode(document.getDocumentElement());
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalArgumentException("Invalid page source", e);
+        }
+    }
+
+    private static FakeElement fromNode(Element node) {
+        FakeElement element = new FakeElement(node.getTagName());
+        NamedNodeMap attributes = node.getAttributes();
+        for (int index = 0; index < attributes.getLength(); index++) {
+            element.withAttribute(attributes.item(index).getNodeName(), attributes.item(index).getNodeValue());
+        }
+        element.withText(Strings.nullToEmpty(node.hasAttribute("text") ? node.getAttribute("text") : node.getAttribute("value")));
+        if ("false".equals(node.getAttribute("enabled"))) {
+            element.disabled();
+        }
+        if ("false".equals(node.getAttribute("visible")) || "false".equals(node.getAttribute("displayed"))) {
+            element.hidden();
+        }
+        Matcher bounds = BOUNDS.matcher(node.getAttribute("bounds"));
+        if (bounds.matches()) {
+            int left = Integer.parseInt(bounds.group(1));
+            int top = Integer.parseInt(bounds.group(2));
+            element.at(left, top).withSize(Integer.parseInt(bounds.group(3)) - left, Integer.parseInt(bounds.group(4)) - top);
+        } else if (node.hasAttribute("width")) {
+            element.at(Integer.parseInt(node.getAttribute("x")), Integer.parseInt(node.getAttribute("y")))
+                    .withSize(Integer.parseInt(node.getAttribute("width")), Integer.parseInt(node.getAttribute("height")));
+        }
+        NodeList children = node.getChildNodes();
+        for (int index = 0; index < children.getLength(); index++) {
+            if (children.item(index) instanceof Element) {
+                element.withChildren(fromNode((Element) children.item(index)));
+            }
+        }
+        return element;
+    }
+
+    public FakeElement withId(String id) {
+        return withAttribute("id", id);
+    }
+
+    public FakeElement withClass(String className) {
+        return withAttribute("class", className);
+    }
+
+    public FakeElement withAttribute(String name, String value) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkNotNull(value);
+        attributes.put(name, value);
+        return this;
+    }
+
+    public FakeElement withText(String text) {
+        this.text = Preconditions.checkNotNull(text);
+        return this;
+    }
+
+    public FakeElement disabled() {
+        this.enabled = false;
+        return this;
+    }
+
+    public FakeElement hidden() {
+        this.displayed = false;
+        return this;
+    }
+
+    public FakeElement at(int x, int y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    public FakeElement withSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        return this;
+    }
+
+    /**
+     * The element is not in the DOM until millis after the session started.
+     */
+    public FakeElement presentAfter(long millis) {
+        this.presentAfter = millis;
+        this.visibleAfter = Math.max(visibleAfter, millis);
+        return this;
+    }
+
+    /**
+     * The element is in the DOM but not displayed until millis after the session started.
+     */
+    public FakeElement visibleAfter(long millis) {
+        this.visibleAfter = Math.max(presentAfter, millis);
+        return this;
+    }
+
+    /**
+     * The element is removed from the DOM millis after the session started.
+     */
+    public FakeElement goneAfter(long millis) {
+        this.goneAfter = millis;
+        return this;
+    }
+
+    /**
+     * The element moves 1 pixel to the right every 10 milliseconds until millis after the session started.
+     */
+    public FakeElement movingUntil(long millis) {
+        this.movingUntil = millis;
+        return this;
+    }
+
+    public FakeElement withChildren(FakeElement... elements) {
+        Arrays.asList(elements).forEach(child -> {
+            child.parent = this;
+            children.add(child);
+        });
+        return this;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    public String attribute(String name) {
+        if ("text".equals(name) && !attributes.containsKey(name)) {
+            return text;
+        }
+        return attributes.get(name);
+    }
+
+    public Map<String, String> attributes() {
+        return attributes;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<FakeElement> children() {
+        return ImmutableList.copyOf(children);
+    }
+
+    public FakeElement parent() {
+        return parent;
+    }
+
+    boolean isPresent(long elapsed) {
+        return elapsed >= presentAfter && elapsed < goneAfter && (parent == null || parent.isPresent(elapsed));
+    }
+
+    boolean isDisplayed(long elapsed) {
+        return displayed && isPresent(elapsed) && elapsed >= visibleAfter && (parent == null || parent.isDisplayed(elapsed));
+    }
+
+    int x(long elapsed) {
+        return elapsed < movingUntil ? x - (int) ((movingUntil - elapsed) / 10) : x;
+    }
+
+    int y() {
+        return y;
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    String id() {
+        return id;
+    }
+
+    void id(String id) {
+        this.id = id;
+    }
+
+    boolean isDescendantOf(FakeElement ancestor) {
+        for (FakeElement current = parent; current != null; current = current.parent) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
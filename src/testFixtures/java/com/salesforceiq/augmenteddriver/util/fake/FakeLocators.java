@@ -0,0 +1,231 @@
+package com.salesforceiq.augmenteddriver.util.fake;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates the locators sent by the drivers into predicates over {@link FakeElement}.
+ *
+ * <p>
+ *     Only the simple forms the framework generates are supported (single step XPaths with attribute predicates,
+ *     compound CSS selectors with descendant combinators, UiSelector chains, getAllWithPredicate with AND of
+ *     comparisons). Anything else is rejected as an invalid selector, so a benchmark never silently matches
+ *     nothing.
+ * </p>
+ */
+class FakeLocators {
+
+    private static final Pattern XPATH_STEP = Pattern.compile("^\\.?//([\\w.\\-]+|\\*)(?:\\[(.*)\\])?$");
+    private static final Pattern XPATH_EQUALS = Pattern.compile("^@([\\w\\-:]+)\\s*=\\s*['\"](.*)['\"]$");
+    private static final Pattern XPATH_TEXT_EQUALS = Pattern.compile("^text\\(\\)\\s*=\\s*['\"](.*)['\"]$");
+    private static final Pattern XPATH_CONTAINS = Pattern.compile("^contains\\(\\s*(@[\\w\\-:]+|text\\(\\))\\s*,\\s*['\"](.*)['\"]\\s*\\)$");
+    private static final Pattern CSS_TAG = Pattern.compile("^([\\w\\-]+|\\*)");
+    private static final Pattern CSS_PART = Pattern.compile("^(?:#([\\w\\-]+)|\\.([\\w\\-]+)|\\[([\\w\\-]+)(?:(\\*?)=['\"]?([^'\"\\]]*)['\"]?)?\\])");
+    private static final Pattern IOS_PREDICATE = Pattern.compile("^\\.getAllWithPredicate\\(\\s*\"(.*)\"\\s*,\\s*true\\s*\\)$");
+    private static final Pattern IOS_CONDITION = Pattern.compile("^(\\w+)\\s+(==|CONTAINS)\\s+'(.*)'$");
+    private static final Pattern UI_SELECTOR_CALL = Pattern.compile("\\.(\\w+)\\(\\s*\"?(.*?)\"?\\s*\\)");
+
+    static Predicate<FakeElement> parse(String using, String value) {
+        Preconditions.checkNotNull(using);
+        Preconditions.checkNotNull(value);
+        switch (using) {
+            case "id":
+                return element -> value.equals(element.attribute("id")) || value.equals(element.attribute("resource-id"));
+            case "name":
+                return element -> value.equals(element.attribute("name"));
+            case "class name":
+                return element -> value.equals(element.tag()) || hasClass(element, value);
+            case "tag name":
+                return element -> value.equals(element.tag());
+            case "link text":
+                return element -> "a".equals(element.tag()) && value.equals(element.text());
+            case "partial link text":
+                return element -> "a".equals(element.tag()) && element.text().contains(value);
+            case "accessibility id":
+                return element -> value.equals(element.attribute("content-desc")) || value.equals(element.attribute("name"));
+            case "xpath":
+                return xpath(value);
+            case "css selector":
+                return css(value);
+            case "-android uiautomator":
+                return uiAutomator(value);
+            case "-ios uiautomation":
+                return iosPredicate(value);
+            default:
+                throw new IllegalArgumentException("Unsupported locator strategy " + using);
+        }
+    }
+
+    private static boolean hasClass(FakeElement element, String className) {
+        String classes = element.attribute("class");
+        return classes != null && Arrays.asList(classes.split("\\s+")).contains(className);
+    }
+
+    private static Predicate<FakeElement> xpath(String xpath) {
+        Matcher step = XPATH_STEP.matcher(xpath.trim());
+        if (!step.matches()) {
+            throw new IllegalArgumentException("Unsupported xpath " + xpath);
+        }
+        String tag = step.group(1);
+        Predicate<FakeElement> result = element -> "*".equals(tag) || tag.equals(element.tag());
+        if (step.group(2) != null) {
+            for (String condition : Splitter.on(" and ").trimResults().split(step.group(2))) {
+                result = result.and(xpathCondition(condition, xpath));
+            }
+        }
+        return result;
+    }
+
+    private static Predicate<FakeElement> xpathCondition(String condition, String xpath) {
+        Matcher equals = XPATH_EQUALS.matcher(condition);
+        if (equals.matches()) {
+            return element -> equals.group(2).equals(element.attribute(equals.group(1)));
+        }
+        Matcher textEquals = XPATH_TEXT_EQUALS.matcher(condition);
+        if (textEquals.matches()) {
+            return element -> textEquals.group(1).equals(element.text());
+        }
+        Matcher contains = XPATH_CONTAINS.matcher(condition);
+        if (contains.matches()) {
+            String attribute = contains.group(1);
+            return element -> {
+                String actual = "text()".equals(attribute) ? element.text() : element.attribute(attribute.substring(1));
+                return actual != null && actual.contains(contains.group(2));
+            };
+        }
+        throw new IllegalArgumentException("Unsupported xpath " + xpath);
+    }
+
+    private static Predicate<FakeElement> css(String selector) {
+        Predicate<FakeElement> result = element -> false;
+        for (String alternative : Splitter.on(',').trimResults().omitEmptyStrings().split(selector)) {
+            result = result.or(cssDescendants(alternative));
+        }
+        return result;
+    }
+
+    private static Predicate<FakeElement> cssDescendants(String selector) {
+        List<Predicate<FakeElement>> compounds = Lists.newArrayList();
+        for (String compound : Splitter.onPattern("\\s+").omitEmptyStrings().split(selector)) {
+            compounds.add(cssCompound(compound, selector));
+        }
+        return element -> matchesFrom(element, compounds, compounds.size() - 1);
+    }
+
+    private static boolean matchesFrom(FakeElement element, List<Predicate<FakeElement>> compounds, int index) {
+        if (!compounds.get(index).test(element)) {
+            return false;
+        }
+        if (index == 0) {
+            return true;
+        }
+        for (FakeElement ancestor = element.parent(); ancestor != null; ancestor = ancestor.parent()) {
+            if (matchesFrom(ancestor, compounds, index - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Predicate<FakeElement> cssCompound(String compound, String selector) {
+        Predicate<FakeElement> result = element -> true;
+        String rest = compound;
+        Matcher tag = CSS_TAG.matcher(rest);
+        if (tag.find()) {
+            String tagName = tag.group(1);
+            result = result.and(element -> "*".equals(tagName) || tagName.equals(element.tag()));
+            rest = rest.substring(tag.end());
+        }
+        while (!rest.isEmpty()) {
+            Matcher part = CSS_PART.matcher(rest);
+            if (!part.find()) {
+                throw new IllegalArgumentException("Unsupported css selector " + selector);
+            }
+            if (part.group(1) != null) {
+                String id = part.group(1);
+                result = result.and(element -> id.equals(element.attribute("id")));
+            } else if (part.group(2) != null) {
+                String className = part.group(2);
+                result = result.and(element -> hasClass(element, className));
+            } else {
+                String attribute = part.group(3);
+                boolean contains = "*".equals(part.group(4));
+                String expected = part.group(5);
+                result = result.and(element -> expected == null
+                        ? element.attribute(attribute) != null
+                        : contains ? contains(element.attribute(attribute), expected) : expected.equals(element.attribute(attribute)));
+            }
+            rest = rest.substring(part.end());
+        }
+        return result;
+    }
+
+    private static Predicate<FakeElement> uiAutomator(String selector) {
+        String last = selector.substring(Math.max(0, selector.lastIndexOf("new UiSelector()")));
+        Predicate<FakeElement> result = element -> true;
+        Matcher call = UI_SELECTOR_CALL.matcher(last);
+        while (call.find()) {
+            String argument = call.group(2);
+            switch (call.group(1)) {
+                case "text":
+                    result = result.and(element -> argument.equals(element.attribute("text")));
+                    break;
+                case "textContains":
+                    result = result.and(element -> contains(element.attribute("text"), argument));
+                    break;
+                case "textStartsWith":
+                    result = result.and(element -> element.attribute("text") != null && element.attribute("text").startsWith(argument));
+                    break;
+                case "description":
+                    result = result.and(element -> argument.equals(element.attribute("content-desc")));
+                    break;
+                case "descriptionContains":
+                    result = result.and(element -> contains(element.attribute("content-desc"), argument));
+                    break;
+                case "className":
+                    result = result.and(element -> argument.equals(element.tag()));
+                    break;
+                case "resourceId":
+                    result = result.and(element -> argument.equals(element.attribute("resource-id")));
+                    break;
+                case "scrollable":
+                case "instance":
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported UiSelector " + selector);
+            }
+        }
+        return result;
+    }
+
+    private static Predicate<FakeElement> iosPredicate(String script) {
+        Matcher predicate = IOS_PREDICATE.matcher(script.trim());
+        if (!predicate.matches()) {
+            throw new IllegalArgumentException("Unsupported UIAutomation " + script);
+        }
+        Predicate<FakeElement> result = element -> true;
+        for (String condition : Splitter.on(" AND ").trimResults().split(predicate.group(1))) {
+            Matcher comparison = IOS_CONDITION.matcher(condition);
+            if (!comparison.matches()) {
+                throw new IllegalArgumentException("Unsupported predicate " + script);
+            }
+            String attribute = comparison.group(1);
+            String expected = comparison.group(3);
+            result = result.and("==".equals(comparison.group(2))
+                    ? element -> expected.equals(element.attribute(attribute))
+                    : element -> contains(element.attribute(attribute), expected));
+        }
+        return result;
+    }
+
+    private static boolean contains(String actual, String expected) {
+        return actual != null && actual.contains(expected);
+    }
+}
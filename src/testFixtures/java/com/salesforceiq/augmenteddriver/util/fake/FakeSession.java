@@ -0,0 +1,63 @@
+package com.salesforceiq.augmenteddriver.util.fake;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One session of {@link FakeWebDriverServer}.
+ *
+ * <p>
+ *     The DOM is shared by all the sessions, what each session owns is its clock (restarted on every navigation)
+ *     and what was typed in each element.
+ * </p>
+ */
+public class FakeSession {
+
+    private final String id;
+    private final Map<String, String> values;
+    private volatile long startInNanos;
+    private volatile String url = "about:blank";
+
+    FakeSession(String id) {
+        this.id = Preconditions.checkNotNull(id);
+        this.values = Maps.newConcurrentMap();
+        this.startInNanos = System.nanoTime();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return milliseconds since the session was created or since the last navigation.
+     */
+    public long elapsed() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startInNanos);
+    }
+
+    void navigate(String url) {
+        this.url = Preconditions.checkNotNull(url);
+        this.startInNanos = System.nanoTime();
+        this.values.clear();
+    }
+
+    String getValue(FakeElement element) {
+        String value = values.get(element.id());
+        return value == null ? element.attribute("value") : value;
+    }
+
+    void type(FakeElement element, String text) {
+        values.merge(element.id(), text, String::concat);
+    }
+
+    void clear(FakeElement element) {
+        values.put(element.id(), "");
+    }
+}
@@ -0,0 +1,401 @@
+package com.salesforceiq.augmenteddriver.util.fake;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.salesforceiq.augmenteddriver.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In process stand-in for a Selenium hub / Appium server, that speaks the JSON wire protocol.
+ *
+ * <p>
+ *     Serves an in memory DOM (see {@link FakeElement}) with configurable latency per command, failure injection,
+ *     and elements that show up, become visible, move or go away over time. Point LOCAL_ADDRESS at
+ *     {@link #getAddress()} to measure the overhead of the framework (runners, waits, page objects) without a grid.
+ * </p>
+ * <p>
+ *     Scripts cannot be evaluated, each one is answered by the {@link ScriptHandler} (null by default).
+ * </p>
+ */
+public class FakeWebDriverServer {
+    private static final Logger LOG = LoggerFactory.getLogger(FakeWebDriverServer.class);
+
+    private static final String BASE_PATH = "/wd/hub";
+    private static final int SUCCESS = 0;
+    private static final int NO_SUCH_ELEMENT = 7;
+    private static final int STALE_ELEMENT = 10;
+    private static final int UNKNOWN_ERROR = 13;
+    private static final int INVALID_SELECTOR = 32;
+
+    static {
+        // Without it the JDK server waits for the delayed ACK of the client on every response (~40ms per command).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Answers the scripts sent with executeScript and executeAsyncScript.
+     */
+    public interface ScriptHandler {
+        /**
+         * @param arguments already decoded, elements are {@link FakeElement}s.
+         * @return value to return to the driver, {@link FakeElement}s are sent back as elements.
+         */
+        Object execute(FakeSession session, String script, List<Object> arguments);
+    }
+
+    private final FakeElement root;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConcurrentMap<String, FakeSession> sessions;
+    private final Map<String, FakeElement> elementsById;
+    private final Gson gson;
+    private final AtomicLong commands;
+    private final Map<String, Long> locatorLatencies = Maps.newConcurrentMap();
+    private volatile long latencyInMillis;
+    private volatile long jitterInMillis;
+    private volatile long sessionLatencyInMillis;
+    private volatile double failureRate;
+    private volatile ScriptHandler scriptHandler = (session, script, arguments) -> null;
+
+    public FakeWebDriverServer(int port, FakeElement root) throws IOException {
+        this.root = Preconditions.checkNotNull(root);
+        this.sessions = Maps.newConcurrentMap();
+        this.elementsById = Maps.newConcurrentMap();
+        this.commands = new AtomicLong();
+        this.gson = new GsonBuilder().serializeNulls().create();
+        this.executor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.server.createContext(BASE_PATH, this::handle);
+        this.server.setExecutor(executor);
+        index(root);
+    }
+
+    public FakeWebDriverServer start() {
+        server.start();
+        LOG.info("Fake WebDriver server listening on " + getAddress());
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the address to use as LOCAL_ADDRESS or REMOTE_ADDRESS.
+     */
+    public String getAddress() {
+        return String.format("http://127.0.0.1:%s%s", server.getAddress().getPort(), BASE_PATH);
+    }
+
+    /**
+     * Every command takes latency plus a random value up to jitter milliseconds.
+     */
+    public FakeWebDriverServer withLatency(long latencyInMillis, long jitterInMillis) {
+        this.latencyInMillis = latencyInMillis;
+        this.jitterInMillis = jitterInMillis;
+        return this;
+    }
+
+    /**
+     * Searches with the given strategy (as sent by the driver, like xpath or -android uiautomator) take latency
+     * milliseconds more, to model the strategies that are slower in the real servers.
+     */
+    public FakeWebDriverServer withLocatorLatency(String using, long latencyInMillis) {
+        locatorLatencies.put(Preconditions.checkNotNull(using), latencyInMillis);
+        return this;
+    }
+
+    public FakeWebDriverServer withSessionLatency(long sessionLatencyInMillis) {
+        this.sessionLatencyInMillis = sessionLatencyInMillis;
+        return this;
+    }
+
+    /**
+     * @param failureRate between 0 and 1, fraction of the commands that fail with an unknown error.
+     */
+    public FakeWebDriverServer withFailureRate(double failureRate) {
+        Preconditions.checkArgument(failureRate >= 0 && failureRate <= 1);
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    public FakeWebDriverServer withScriptHandler(ScriptHandler scriptHandler) {
+        this.scriptHandler = Preconditions.checkNotNull(scriptHandler);
+        return this;
+    }
+
+    /**
+     * @return how many commands were received, to count round trips in benchmarks.
+     */
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void index(FakeElement element) {
+        element.id(String.valueOf(elementsById.size()));
+        elementsById.put(element.id(), element);
+        element.children().forEach(this::index);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        commands.incrementAndGet();
+        try {
+            String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            JsonObject body = parse(exchange);
+            pause(exchange.getRequestMethod(), path);
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                respond(exchange, null, UNKNOWN_ERROR, ImmutableMap.of("message", "Injected failure"));
+                return;
+            }
+            List<String> segments = Splitter.on('/').omitEmptyStrings().splitToList(path);
+            if (segments.size() == 1 && "session".equals(segments.get(0))) {
+                newSession(exchange);
+            } else if (segments.size() >= 2 && "session".equals(segments.get(0))) {
+                FakeSession session = sessions.get(segments.get(1));
+                if (session == null) {
+                    respond(exchange, segments.get(1), 6, ImmutableMap.of("message", "No such session"));
+                } else {
+                    handleSession(exchange, session, segments.subList(2, segments.size()), body);
+                }
+            } else {
+                respond(exchange, null, SUCCESS, null);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Fake server failed answering " + exchange.getRequestURI(), e);
+            respond(exchange, null, UNKNOWN_ERROR, ImmutableMap.of("message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void newSession(HttpExchange exchange) throws IOException {
+        if (sessionLatencyInMillis > 0) {
+            Util.pause(sessionLatencyInMillis);
+        }
+        FakeSession session = new FakeSession(UUID.randomUUID().toString());
+        sessions.put(session.getId(), session);
+        respond(exchange, session.getId(), SUCCESS, ImmutableMap.of("browserName", "fake", "platform", "ANY", "javascriptEnabled", true));
+    }
+
+    private void handleSession(HttpExchange exchange, FakeSession session, List<String> command, JsonObject body) throws IOException {
+        String method = exchange.getRequestMethod();
+        String name = command.isEmpty() ? "" : command.get(0);
+        long elapsed = session.elapsed();
+
+        if (command.isEmpty() && "DELETE".equals(method)) {
+            sessions.remove(session.getId());
+            respond(exchange, session.getId(), SUCCESS, null);
+        } else if ("element".equals(name) && command.size() == 1 || "elements".equals(name)) {
+            find(exchange, session, null, "elements".equals(name), body, elapsed);
+        } else if ("element".equals(name) && command.size() >= 3) {
+            FakeElement element = elementsById.get(command.get(1));
+            if (element == null || !element.isPresent(elapsed)) {
+                respond(exchange, session.getId(), STALE_ELEMENT, ImmutableMap.of("message", "Stale element " + command.get(1)));
+            } else if ("element".equals(command.get(2)) || "elements".equals(command.get(2))) {
+                find(exchange, session, element, "elements".equals(command.get(2)), body, elapsed);
+            } else {
+                respond(exchange, session.getId(), SUCCESS, elementCommand(session, element, command.subList(2, command.size()), body, elapsed));
+            }
+        } else if ("execute".equals(name) || "execute_async".equals(name)) {
+            List<Object> arguments = Lists.newArrayList();
+            if (body.has("args")) {
+                body.getAsJsonArray("args").forEach(argument -> arguments.add(decode(argument)));
+            }
+            Object result = scriptHandler.execute(session, body.get("script").getAsString(), arguments);
+            respond(exchange, session.getId(), SUCCESS, encode(result));
+        } else if ("url".equals(name) && "POST".equals(method)) {
+            session.navigate(body.get("url").getAsString());
+            respond(exchange, session.getId(), SUCCESS, null);
+        } else if ("url".equals(name)) {
+            respond(exchange, session.getId(), SUCCESS, session.getUrl());
+        } else if ("source".equals(name)) {
+            respond(exchange, session.getId(), SUCCESS, source(root, elapsed));
+        } else if ("window".equals(name) && command.size() >= 3 && "size".equals(command.get(2))) {
+            respond(exchange, session.getId(), SUCCESS, ImmutableMap.of("width", root.width(), "height", root.height()));
+        } else {
+            respond(exchange, session.getId(), SUCCESS, null);
+        }
+    }
+
+    private void find(HttpExchange exchange, FakeSession session, FakeElement parent, boolean many,
+                      JsonObject body, long elapsed) throws IOException {
+        Predicate<FakeElement> locator;
+        String using = body.get("using").getAsString();
+        Long latency = locatorLatencies.get(using);
+        if (latency != null && latency > 0) {
+            Util.pause(latency);
+        }
+        try {
+            locator = FakeLocators.parse(using, body.get("value").getAsString());
+        } catch (IllegalArgumentException e) {
+            respond(exchange, session.getId(), INVALID_SELECTOR, ImmutableMap.of("message", e.getMessage()));
+            return;
+        }
+        List<Object> found = elementsById.values()
+                .stream()
+                .filter(element -> element != root)
+                .filter(element -> parent == null || element.isDescendantOf(parent))
+                .filter(element -> element.isPresent(elapsed))
+                .filter(locator)
+                .sorted((one, other) -> Integer.compare(Integer.valueOf(one.id()), Integer.valueOf(other.id())))
+                .map(this::encode)
+                .collect(Collectors.toList());
+        if (many) {
+            respond(exchange, session.getId(), SUCCESS, found);
+        } else if (found.isEmpty()) {
+            respond(exchange, session.getId(), NO_SUCH_ELEMENT, ImmutableMap.of("message", "No element found"));
+        } else {
+            respond(exchange, session.getId(), SUCCESS, found.get(0));
+        }
+    }
+
+    private Object elementCommand(FakeSession session, FakeElement element, List<String> command, JsonObject body, long elapsed) {
+        switch (command.get(0)) {
+            case "displayed":
+                return element.isDisplayed(elapsed);
+            case "enabled":
+                return element.isEnabled();
+            case "selected":
+                return false;
+            case "name":
+                return element.tag();
+            case "text":
+                return element.isDisplayed(elapsed) ? element.text() : "";
+            case "attribute":
+                return "value".equals(command.get(1)) ? session.getValue(element) : element.attribute(command.get(1));
+            case "css":
+                return "";
+            case "location":
+            case "location_in_view":
+                return ImmutableMap.of("x", element.x(elapsed), "y", element.y());
+            case "size":
+                return ImmutableMap.of("width", element.width(), "height", element.height());
+            case "value":
+                StringBuilder typed = new StringBuilder();
+                body.getAsJsonArray("value").forEach(key -> typed.append(key.getAsString()));
+                session.type(element, typed.toString());
+                return null;
+            case "clear":
+                session.clear(element);
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private Object encode(Object value) {
+        if (value instanceof FakeElement) {
+            return ImmutableMap.of("ELEMENT", ((FakeElement) value).id());
+        } else if (value instanceof List) {
+            return ((List<?>) value).stream().map(this::encode).collect(Collectors.toList());
+        } else if (value instanceof Map) {
+            Map<Object, Object> result = Maps.newLinkedHashMap();
+            ((Map<?, ?>) value).forEach((key, each) -> result.put(key, encode(each)));
+            return result;
+        }
+        return value;
+    }
+
+    private Object decode(JsonElement json) {
+        if (json.isJsonObject() && json.getAsJsonObject().has("ELEMENT")) {
+            return elementsById.get(json.getAsJsonObject().get("ELEMENT").getAsString());
+        }
+        return gson.fromJson(json, Object.class);
+    }
+
+    private String source(FakeElement element, long elapsed) {
+        StringBuilder builder = new StringBuilder("<").append(element.tag());
+        element.attributes().forEach((name, value) -> builder.append(' ').append(name).append("=\"").append(escape(value)).append('"'));
+        if (!element.attributes().containsKey("text") && !element.text().isEmpty()) {
+            builder.append(" text=\"").append(escape(element.text())).append('"');
+        }
+        builder.append(" displayed=\"").append(element.isDisplayed(elapsed)).append("\">");
+        element.children()
+                .stream()
+                .filter(child -> child.isPresent(elapsed))
+                .forEach(child -> builder.append(source(child, elapsed)));
+        return builder.append("</").append(element.tag()).append('>').toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private JsonObject parse(HttpExchange exchange) throws IOException {
+        String content = new String(ByteStreams.toByteArray(exchange.getRequestBody()), StandardCharsets.UTF_8);
+        if (content.trim().isEmpty()) {
+            return new JsonObject();
+        }
+        JsonElement json = new JsonParser().parse(content);
+        return json.isJsonObject() ? json.getAsJsonObject() : new JsonObject();
+    }
+
+    private void pause(String method, String path) {
+        long latency = latencyInMillis + (jitterInMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterInMillis + 1) : 0);
+        if (latency > 0 && !("POST".equals(method) && "/session".equals(path))) {
+            Util.pause(latency);
+        }
+    }
+
+    private void respond(HttpExchange exchange, String sessionId, int status, Object value) throws IOException {
+        Map<String, Object> response = Maps.newLinkedHashMap();
+        response.put("sessionId", sessionId);
+        response.put("status", status);
+        response.put("value", value);
+        byte[] bytes = gson.toJson(response).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status == SUCCESS ? 200 : 500, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Starts a server with an empty page on the given port (7777 by default, the default LOCAL_ADDRESS).
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.valueOf(args[0]) : 7777;
+        long latency = args.length > 1 ? Long.valueOf(args[1]) : 0;
+        FakeWebDriverServer server = new FakeWebDriverServer(port, new FakeElement("html").withSize(1280, 1024))
+                .withLatency(latency, latency / 2)
+                .start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        while (true) {
+            TimeUnit.MINUTES.sleep(1);
+            LOG.info(String.format("%s commands, %s open sessions", server.getCommandCount(), server.getSessionCount()));
+        }
+    }
+}